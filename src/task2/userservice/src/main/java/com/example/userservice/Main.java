@@ -1,33 +1,97 @@
 package com.example.userservice;
 
+import com.example.userservice.batch.BatchOperation;
+import com.example.userservice.batch.BatchReport;
+import com.example.userservice.batch.BatchRunner;
+import com.example.userservice.dao.CachingUserDAO;
+import com.example.userservice.logging.SqlTraceLevel;
 import com.example.userservice.dao.UserDAO;
+import com.example.userservice.dao.JdbcUserDAO;
 import com.example.userservice.dao.UserDAOImpl;
+import com.example.userservice.dto.UserSummary;
 import com.example.userservice.exception.*;
 import com.example.userservice.model.User;
+import com.example.userservice.util.DataSourceProvider;
+import com.example.userservice.util.HibernateUtil;
 import com.example.userservice.util.UserValidator;
 import lombok.extern.slf4j.Slf4j;
 import lombok.RequiredArgsConstructor;
 
+import java.nio.file.Path;
 import java.util.List;
 import java.util.Optional;
 import java.util.Scanner;
 
 @Slf4j
 public class Main {
+    // Реализация DAO выбирается при запуске: -Dapp.dao=hibernate|jdbc
+    private static final String DAO_PROPERTY = "app.dao";
+    // Кэширующий декоратор: -Dapp.cache=true, размер -Dapp.cache.size
+    private static final String CACHE_PROPERTY = "app.cache";
+    private static final String CACHE_SIZE_PROPERTY = "app.cache.size";
+
     private final Scanner scanner;
     private final UserDAO userDAO;
 
     public Main() {
-        this(new Scanner(System.in), new UserDAOImpl());
+        this(new Scanner(System.in), withCache(createUserDAO(System.getProperty(DAO_PROPERTY, "hibernate"))));
     }
 
     public Main(Scanner scanner, UserDAO userDAO) {
         this.scanner = scanner;
         this.userDAO = userDAO;
     }
-    public static void main(String[] args) {
+    public static void main(String[] args) throws InterruptedException {
+        // Пакетный режим: --batch <файл> [--threads N]
+        if (args.length > 0 && args[0].equals("--batch")) {
+            runBatch(args);
+            return;
+        }
         new Main().run();
     }
+
+    static void runBatch(String[] args) throws InterruptedException {
+        if (args.length < 2) {
+            System.out.println("Использование: --batch <файл> [--threads N]");
+            return;
+        }
+        int threads = 1;
+        if (args.length >= 4 && args[2].equals("--threads")) {
+            threads = Integer.parseInt(args[3]);
+        }
+        String implementation = System.getProperty(DAO_PROPERTY, "hibernate");
+        UserDAO userDAO = withCache(createUserDAO(implementation));
+        try {
+            List<BatchOperation> operations = BatchRunner.readScript(Path.of(args[1]));
+            BatchReport report = new BatchRunner(userDAO, threads).run(operations);
+            System.out.print(report.format());
+        } finally {
+            if (implementation.equals("jdbc")) {
+                DataSourceProvider.shutdown();
+            } else {
+                HibernateUtil.shutdown();
+            }
+        }
+    }
+
+    public static UserDAO createUserDAO(String implementation) {
+        log.info("Реализация DAO: {}", implementation);
+        return switch (implementation) {
+            case "hibernate" -> new UserDAOImpl();
+            case "jdbc" -> new JdbcUserDAO();
+            default -> throw new IllegalArgumentException("Неизвестная реализация DAO: " + implementation);
+        };
+    }
+
+    static UserDAO withCache(UserDAO userDAO) {
+        if (!Boolean.getBoolean(CACHE_PROPERTY)) {
+            return userDAO;
+        }
+        int maxSize = Integer.getInteger(CACHE_SIZE_PROPERTY, CachingUserDAO.DEFAULT_MAX_SIZE);
+        log.info("Кэширование DAO включено, размер кэша: {}", maxSize);
+        return new CachingUserDAO(userDAO, maxSize);
+    }
+
     public void run() {
         log.info("Запуск приложения");
         boolean running = true;
@@ -43,6 +107,8 @@ public class Main {
                 case "3" -> findUser();
                 case "4" -> updateUser();
                 case "5" -> deleteUser();
+                case "6", "stats" -> showStatistics();
+                case "7", "sql" -> changeSqlTrace();
                 case "0" -> running = false;
                 default -> {
                     log.warn("Неверный выбор меню: {}", choice);
@@ -64,6 +130,8 @@ public class Main {
                 3. Найти пользователя по ID
                 4. Обновить пользователя
                 5. Удалить пользователя
+                6. Статистика Hibernate (stats)
+                7. Трассировка SQL (sql)
                 0. Выход
                 ==========================
                 Выберите действие:
@@ -115,7 +183,7 @@ public class Main {
 
      void listUsers() {
         try {
-            List<User> users = userDAO.findAll();
+            List<UserSummary> users = userDAO.findAllSummaries();
             if (users.isEmpty()) {
                 log.info("Запрошен список пользователей - база пуста");
                 System.out.println("ℹ️ Нет пользователей.");
@@ -136,7 +204,7 @@ public class Main {
             Long id = Long.parseLong(scanner.nextLine());
             log.debug("Поиск пользователя по ID: {}", id);
 
-            Optional<User> user = userDAO.findById(id);
+            Optional<UserSummary> user = userDAO.findSummaryById(id);
             if (user.isPresent()) {
                 log.info("Найден пользователь: ID={}", id);
                 System.out.println("Найден пользователь: " + user.get());
@@ -228,4 +296,26 @@ public class Main {
             System.out.println("❌ Ошибка при удалении пользователя: " + e.getMessage());
         }
     }
+
+     void showStatistics() {
+        log.debug("Запрошена статистика Hibernate");
+        System.out.println("Статистика Hibernate:");
+        System.out.println(HibernateUtil.getStatisticsReporter().report());
+        if (userDAO instanceof CachingUserDAO cachingUserDAO) {
+            System.out.println("Кэш DAO:");
+            System.out.println(cachingUserDAO.statistics());
+        }
+    }
+
+    void changeSqlTrace() {
+        System.out.print("Уровень трассировки SQL (off/sql/bind), сейчас " + SqlTraceLevel.current().getLabel() + ": ");
+        String input = scanner.nextLine().trim();
+        try {
+            SqlTraceLevel.fromLabel(input).apply();
+            System.out.println("✅ Трассировка SQL: " + input.toLowerCase());
+        } catch (IllegalArgumentException e) {
+            log.warn("Неверный уровень трассировки SQL: {}", input);
+            System.out.println("❌ Ошибка: " + e.getMessage());
+        }
+    }
 }
@@ -0,0 +1,59 @@
+package com.example.userservice.batch;
+
+import java.util.Arrays;
+
+// Одна строка сценария: create;name;email;age | find;id | update;id;name;email;age | delete;id
+public record BatchOperation(Type type, String[] args, int lineNumber) {
+    private static final String SEPARATOR = ";";
+
+    public enum Type {
+        CREATE("create", 3),
+        FIND("find", 1),
+        UPDATE("update", 4),
+        DELETE("delete", 1);
+
+        private final String label;
+        private final int argCount;
+
+        Type(String label, int argCount) {
+            this.label = label;
+            this.argCount = argCount;
+        }
+
+        public String getLabel() {
+            return label;
+        }
+
+        static Type fromLabel(String label) {
+            return Arrays.stream(values())
+                    .filter(type -> type.label.equalsIgnoreCase(label))
+                    .findFirst()
+                    .orElseThrow(() -> new IllegalArgumentException("Неизвестная операция: " + label));
+        }
+    }
+
+    public static BatchOperation parse(String line, int lineNumber) {
+        String[] parts = line.split(SEPARATOR, -1);
+        Type type;
+        try {
+            type = Type.fromLabel(parts[0].trim());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Строка " + lineNumber + ": " + e.getMessage(), e);
+        }
+        if (parts.length - 1 != type.argCount) {
+            throw new IllegalArgumentException(String.format("Строка %d: операция %s ожидает %d аргумент(ов), получено %d",
+                    lineNumber, type.label, type.argCount, parts.length - 1));
+        }
+        String[] args = new String[type.argCount];
+        for (int i = 0; i < args.length; i++) {
+            args[i] = parts[i + 1].trim();
+        }
+        return new BatchOperation(type, args, lineNumber);
+    }
+
+    // Пустые строки и комментарии (#) пропускаются
+    static boolean isSkipped(String line) {
+        String trimmed = line.trim();
+        return trimmed.isEmpty() || trimmed.startsWith("#");
+    }
+}
@@ -0,0 +1,62 @@
+package com.example.userservice.batch;
+
+import com.example.userservice.util.LatencyRecorder;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+// Итог пакетного прогона: гистограммы задержек успешных операций по типам и общая пропускная способность
+public record BatchReport(Map<BatchOperation.Type, LatencyRecorder> latencies,
+                          Map<BatchOperation.Type, Integer> errors,
+                          long elapsedNanos) {
+
+    static BatchReport of(List<BatchRunner.WorkerResult> results, long elapsedNanos) {
+        Map<BatchOperation.Type, LatencyRecorder> latencies = new EnumMap<>(BatchOperation.Type.class);
+        Map<BatchOperation.Type, Integer> errors = new EnumMap<>(BatchOperation.Type.class);
+        for (BatchOperation.Type type : BatchOperation.Type.values()) {
+            List<LatencyRecorder> recorders = new ArrayList<>();
+            for (BatchRunner.WorkerResult result : results) {
+                LatencyRecorder recorder = result.latencies.get(type);
+                if (recorder != null) {
+                    recorders.add(recorder);
+                }
+                errors.merge(type, result.errors.getOrDefault(type, 0), Integer::sum);
+            }
+            latencies.put(type, LatencyRecorder.merge(recorders));
+        }
+        return new BatchReport(latencies, errors, elapsedNanos);
+    }
+
+    public int succeeded() {
+        return latencies.values().stream().mapToInt(LatencyRecorder::count).sum();
+    }
+
+    public int failed() {
+        return errors.values().stream().mapToInt(Integer::intValue).sum();
+    }
+
+    public double throughput() {
+        return (succeeded() + failed()) / (elapsedNanos / 1e9);
+    }
+
+    public String format() {
+        StringBuilder sb = new StringBuilder();
+        for (BatchOperation.Type type : BatchOperation.Type.values()) {
+            LatencyRecorder recorder = latencies.get(type);
+            int failedCount = errors.get(type);
+            if (recorder.count() == 0 && failedCount == 0) {
+                continue;
+            }
+            sb.append(String.format("%s: успешно=%d, ошибок=%d, p50=%.1f мкс, p99=%.1f мкс, max=%.1f мкс%n",
+                    type.getLabel(), recorder.count(), failedCount, recorder.percentileMicros(50),
+                    recorder.percentileMicros(99), recorder.percentileMicros(100)));
+            sb.append(recorder.histogram());
+        }
+        sb.append(String.format("Всего: %d операций (ошибок: %d) за %d мс, %.0f оп/с%n",
+                succeeded() + failed(), failed(), TimeUnit.NANOSECONDS.toMillis(elapsedNanos), throughput()));
+        return sb.toString();
+    }
+}
@@ -0,0 +1,164 @@
+package com.example.userservice.batch;
+
+import com.example.userservice.dao.UserDAO;
+import com.example.userservice.exception.UserNotFoundException;
+import com.example.userservice.model.User;
+import com.example.userservice.util.LatencyRecorder;
+import com.example.userservice.util.UserValidator;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Пакетный режим: выполняет сценарий операций без интерактивного меню и печатает отчет по задержкам.
+// Потоки разбирают операции из общей очереди в порядке файла
+@Slf4j
+public class BatchRunner {
+    private final UserDAO userDAO;
+    private final int threadCount;
+
+    public BatchRunner(UserDAO userDAO, int threadCount) {
+        if (threadCount < 1) {
+            throw new IllegalArgumentException("Число потоков должно быть положительным: " + threadCount);
+        }
+        this.userDAO = userDAO;
+        this.threadCount = threadCount;
+    }
+
+    public static List<BatchOperation> readScript(Path file) {
+        List<String> lines;
+        try {
+            lines = Files.readAllLines(file);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Не удалось прочитать сценарий " + file, e);
+        }
+        List<BatchOperation> operations = new ArrayList<>(lines.size());
+        for (int i = 0; i < lines.size(); i++) {
+            if (!BatchOperation.isSkipped(lines.get(i))) {
+                operations.add(BatchOperation.parse(lines.get(i), i + 1));
+            }
+        }
+        return operations;
+    }
+
+    public BatchReport run(List<BatchOperation> operations) throws InterruptedException {
+        log.info("Пакетный режим: {} операций, потоков: {}", operations.size(), threadCount);
+        boolean[] rejected = prevalidate(operations);
+        AtomicInteger next = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(threadCount);
+        try {
+            long start = System.nanoTime();
+            List<Future<WorkerResult>> futures = new ArrayList<>(threadCount);
+            for (int t = 0; t < threadCount; t++) {
+                futures.add(executor.submit(() -> work(operations, rejected, next)));
+            }
+            List<WorkerResult> results = new ArrayList<>(threadCount);
+            for (Future<WorkerResult> future : futures) {
+                try {
+                    results.add(future.get());
+                } catch (ExecutionException e) {
+                    throw new IllegalStateException("Ошибка потока пакетного режима", e.getCause());
+                }
+            }
+            return BatchReport.of(results, System.nanoTime() - start);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    // Все create/update проверяются одним проходом до старта потоков; отклоненные операции не выполняются
+    private boolean[] prevalidate(List<BatchOperation> operations) {
+        boolean[] rejected = new boolean[operations.size()];
+        List<User> users = new ArrayList<>();
+        List<Integer> positions = new ArrayList<>();
+        for (int i = 0; i < operations.size(); i++) {
+            BatchOperation operation = operations.get(i);
+            if (operation.type() != BatchOperation.Type.CREATE && operation.type() != BatchOperation.Type.UPDATE) {
+                continue;
+            }
+            try {
+                users.add(toUser(operation));
+                positions.add(i);
+            } catch (NumberFormatException e) {
+                log.debug("Строка {}: некорректное число: {}", operation.lineNumber(), e.getMessage());
+                rejected[i] = true;
+            }
+        }
+        for (UserValidator.Violation violation : UserValidator.validateAll(users)) {
+            int position = positions.get(violation.index());
+            log.debug("Строка {}: ошибка валидации: {}", operations.get(position).lineNumber(), violation.messages());
+            rejected[position] = true;
+        }
+        return rejected;
+    }
+
+    private WorkerResult work(List<BatchOperation> operations, boolean[] rejected, AtomicInteger next) {
+        WorkerResult result = new WorkerResult();
+        int index;
+        while ((index = next.getAndIncrement()) < operations.size()) {
+            BatchOperation operation = operations.get(index);
+            if (rejected[index]) {
+                result.errors.merge(operation.type(), 1, Integer::sum);
+                continue;
+            }
+            long opStart = System.nanoTime();
+            try {
+                execute(operation);
+                result.latencies.computeIfAbsent(operation.type(), type -> new LatencyRecorder())
+                        .record(System.nanoTime() - opStart);
+            } catch (RuntimeException e) {
+                // Ошибки бизнес-уровня считаются, но не прерывают прогон
+                log.debug("Строка {}: {} завершилась ошибкой: {}", operation.lineNumber(),
+                        operation.type().getLabel(), e.getMessage());
+                result.errors.merge(operation.type(), 1, Integer::sum);
+            }
+        }
+        return result;
+    }
+
+    void execute(BatchOperation operation) {
+        switch (operation.type()) {
+            case CREATE -> userDAO.save(toUser(operation));
+            case FIND -> userDAO.findById(Long.parseLong(operation.args()[0]));
+            case UPDATE -> userDAO.update(toUser(operation));
+            case DELETE -> {
+                Long id = Long.parseLong(operation.args()[0]);
+                User user = userDAO.findById(id).orElseThrow(() -> new UserNotFoundException(id));
+                userDAO.delete(user);
+            }
+        }
+    }
+
+    private static User toUser(BatchOperation operation) {
+        String[] args = operation.args();
+        if (operation.type() == BatchOperation.Type.CREATE) {
+            return User.builder()
+                    .name(args[0])
+                    .email(args[1])
+                    .age(Integer.parseInt(args[2]))
+                    .build();
+        }
+        return User.builder()
+                .id(Long.parseLong(args[0]))
+                .name(args[1])
+                .email(args[2])
+                .age(Integer.parseInt(args[3]))
+                .build();
+    }
+
+    static class WorkerResult {
+        final Map<BatchOperation.Type, LatencyRecorder> latencies = new EnumMap<>(BatchOperation.Type.class);
+        final Map<BatchOperation.Type, Integer> errors = new EnumMap<>(BatchOperation.Type.class);
+    }
+}
@@ -0,0 +1,228 @@
+package com.example.userservice.dao;
+
+import com.example.userservice.dto.UserSummary;
+import com.example.userservice.model.User;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Декоратор UserDAO с ограниченными LRU-кэшами findById и existsByEmail.
+// Запись идет сквозь кэш (save/update), удаление инвалидирует записи.
+// Промах заполняет кэш, только если с начала чтения из БД не было записей: иначе при --threads
+// прочитанное до чужого update/delete значение легло бы в кэш поверх свежего.
+@Slf4j
+public class CachingUserDAO implements UserDAO {
+    public static final int DEFAULT_MAX_SIZE = 1_000;
+
+    private final UserDAO delegate;
+    private final LruCache<Long, User> usersById;
+    // false - негативная запись: email точно отсутствует в БД
+    private final LruCache<String, Boolean> emailExists;
+
+    public CachingUserDAO(UserDAO delegate) {
+        this(delegate, DEFAULT_MAX_SIZE);
+    }
+
+    public CachingUserDAO(UserDAO delegate, int maxSize) {
+        this.delegate = delegate;
+        this.usersById = new LruCache<>(maxSize);
+        this.emailExists = new LruCache<>(maxSize);
+    }
+
+    @Override
+    public void save(User user) {
+        delegate.save(user);
+        if (user.getId() != null) {
+            usersById.put(user.getId(), copyOf(user));
+        }
+        emailExists.put(user.getEmail(), true);
+    }
+
+    @Override
+    public Optional<User> findById(Long id) {
+        if (id == null) {
+            return delegate.findById(null);
+        }
+        User cached = usersById.get(id);
+        if (cached != null) {
+            return Optional.of(copyOf(cached));
+        }
+        long version = usersById.version();
+        Optional<User> user = delegate.findById(id);
+        user.ifPresent(u -> usersById.putIfUnchanged(id, copyOf(u), version));
+        return user;
+    }
+
+    @Override
+    public List<User> findAll() {
+        return delegate.findAll();
+    }
+
+    @Override
+    public void update(User user) {
+        if (user == null || user.getId() == null) {
+            // Кэшировать нечего; delegate отклонит такого пользователя с UserValidationException
+            delegate.update(user);
+            return;
+        }
+        User previous = usersById.get(user.getId());
+        try {
+            delegate.update(user);
+        } catch (RuntimeException e) {
+            usersById.remove(user.getId());
+            throw e;
+        }
+        if (previous != null && !previous.getEmail().equals(user.getEmail())) {
+            emailExists.put(previous.getEmail(), false);
+        } else if (previous == null) {
+            // Прежний email неизвестен - негативные записи могли устареть
+            emailExists.clear();
+        }
+        usersById.put(user.getId(), copyOf(user));
+        emailExists.put(user.getEmail(), true);
+    }
+
+    @Override
+    public void delete(User user) {
+        if (user == null || user.getId() == null) {
+            delegate.delete(user);
+            return;
+        }
+        try {
+            delegate.delete(user);
+        } finally {
+            User previous = usersById.remove(user.getId());
+            emailExists.remove(user.getEmail());
+            if (previous != null) {
+                emailExists.remove(previous.getEmail());
+            }
+        }
+    }
+
+    @Override
+    public boolean existsByEmail(String email) {
+        Boolean cached = emailExists.get(email);
+        if (cached != null) {
+            return cached;
+        }
+        long version = emailExists.version();
+        boolean exists = delegate.existsByEmail(email);
+        emailExists.putIfUnchanged(email, exists, version);
+        return exists;
+    }
+
+    @Override
+    public List<UserSummary> findAllSummaries() {
+        return delegate.findAllSummaries();
+    }
+
+    @Override
+    public Optional<UserSummary> findSummaryById(Long id) {
+        User cached = id != null ? usersById.get(id) : null;
+        if (cached != null) {
+            return Optional.of(new UserSummary(cached.getId(), cached.getName(), cached.getEmail(), cached.getAge()));
+        }
+        return delegate.findSummaryById(id);
+    }
+
+    public String statistics() {
+        return "findById: " + usersById.describe() + "\nexistsByEmail: " + emailExists.describe();
+    }
+
+    public double getUserHitRatio() {
+        return usersById.hitRatio();
+    }
+
+    public double getEmailHitRatio() {
+        return emailExists.hitRatio();
+    }
+
+    // Вызывающий код может менять полученный объект (Main.updateUser), поэтому кэш хранит и отдает копии
+    private static User copyOf(User user) {
+        return User.builder()
+                .id(user.getId())
+                .name(user.getName())
+                .email(user.getEmail())
+                .age(user.getAge())
+                .build();
+    }
+
+    // version растет при каждом изменении через put/remove/clear, заполнение после промаха его не меняет
+    private static class LruCache<K, V> {
+        private final Map<K, V> entries;
+        private long version;
+        private final AtomicLong hits = new AtomicLong();
+        private final AtomicLong misses = new AtomicLong();
+
+        LruCache(int maxSize) {
+            this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<K, V> eldest) {
+                    return size() > maxSize;
+                }
+            };
+        }
+
+        V get(K key) {
+            V value;
+            synchronized (entries) {
+                value = entries.get(key);
+            }
+            (value != null ? hits : misses).incrementAndGet();
+            return value;
+        }
+
+        long version() {
+            synchronized (entries) {
+                return version;
+            }
+        }
+
+        void put(K key, V value) {
+            synchronized (entries) {
+                version++;
+                entries.put(key, value);
+            }
+        }
+
+        void putIfUnchanged(K key, V value, long expectedVersion) {
+            synchronized (entries) {
+                if (version == expectedVersion) {
+                    entries.put(key, value);
+                }
+            }
+        }
+
+        V remove(K key) {
+            synchronized (entries) {
+                version++;
+                return entries.remove(key);
+            }
+        }
+
+        void clear() {
+            synchronized (entries) {
+                version++;
+                entries.clear();
+            }
+        }
+
+        double hitRatio() {
+            long total = hits.get() + misses.get();
+            return total == 0 ? 0 : (double) hits.get() / total;
+        }
+
+        String describe() {
+            int size;
+            synchronized (entries) {
+                size = entries.size();
+            }
+            return String.format("попаданий=%d, промахов=%d, hit ratio=%.2f, записей=%d",
+                    hits.get(), misses.get(), hitRatio(), size);
+        }
+    }
+}
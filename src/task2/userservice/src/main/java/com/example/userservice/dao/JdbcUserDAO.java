@@ -0,0 +1,230 @@
+package com.example.userservice.dao;
+
+import com.example.userservice.dto.UserSummary;
+import com.example.userservice.exception.*;
+import com.example.userservice.model.User;
+import com.example.userservice.util.DataSourceProvider;
+import com.example.userservice.util.UserValidator;
+import lombok.extern.slf4j.Slf4j;
+
+import javax.sql.DataSource;
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+// Реализация UserDAO на чистом JDBC: без сессий, прокси и persistence context
+@Slf4j
+public class JdbcUserDAO implements UserDAO {
+    private static final String UNIQUE_VIOLATION = "23505";
+
+    private static final String SELECT_USERS = "SELECT id, name, email, age FROM users";
+    private static final String FIND_BY_ID = SELECT_USERS + " WHERE id = ?";
+    private static final String EXISTS_BY_EMAIL = "SELECT 1 FROM users WHERE email = ? LIMIT 1";
+    private static final String INSERT = "INSERT INTO users (name, email, age) VALUES (?, ?, ?)";
+    private static final String UPDATE = "UPDATE users SET name = ?, email = ?, age = ? WHERE id = ?";
+    private static final String DELETE = "DELETE FROM users WHERE id = ?";
+
+    private final DataSource dataSource;
+
+    public JdbcUserDAO() {
+        this(DataSourceProvider.getDataSource());
+    }
+
+    public JdbcUserDAO(DataSource dataSource) {
+        this.dataSource = dataSource;
+    }
+
+    @Override
+    public boolean existsByEmail(String email) {
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement(EXISTS_BY_EMAIL)) {
+            statement.setString(1, email);
+            try (ResultSet rs = statement.executeQuery()) {
+                return rs.next();
+            }
+        } catch (SQLException e) {
+            log.error("Ошибка при проверке email: {}", email, e);
+            throw new DatabaseOperationException("проверки email", e);
+        }
+    }
+
+    @Override
+    public void save(User user) {
+        try {
+            UserValidator.validateUser(user);
+            if (existsByEmail(user.getEmail())) {
+                throw new UserAlreadyExistsException(user.getEmail());
+            }
+        } catch (UserValidationException | UserAlreadyExistsException e) {
+            log.error("Ошибка валидации пользователя: {}", e.getMessage());
+            throw e;
+        }
+
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement(INSERT, new String[]{"id"})) {
+            bindUser(statement, user);
+            statement.executeUpdate();
+            try (ResultSet keys = statement.getGeneratedKeys()) {
+                if (keys.next()) {
+                    user.setId(keys.getLong(1));
+                }
+            }
+            log.info("Пользователь сохранен: ID={}, email={}", user.getId(), user.getEmail());
+        } catch (SQLException e) {
+            if (UNIQUE_VIOLATION.equals(e.getSQLState())) {
+                throw new UserAlreadyExistsException(user.getEmail());
+            }
+            log.error("Ошибка при сохранении пользователя: {}", user, e);
+            throw new DatabaseOperationException("Ошибка при сохранении пользователя: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public Optional<User> findById(Long id) {
+        if (id == null) {
+            log.warn("Попытка поиска пользователя с null-ID");
+            return Optional.empty();
+        }
+
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement(FIND_BY_ID)) {
+            statement.setLong(1, id);
+            try (ResultSet rs = statement.executeQuery()) {
+                if (rs.next()) {
+                    return Optional.of(mapUser(rs));
+                }
+            }
+            log.warn("Пользователь с ID={} не найден", id);
+            return Optional.empty();
+        } catch (SQLException e) {
+            log.error("Ошибка при поиске пользователя по ID={}", id, e);
+            throw new DatabaseOperationException("поиска пользователя", e);
+        }
+    }
+
+    @Override
+    public List<User> findAll() {
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement(SELECT_USERS);
+             ResultSet rs = statement.executeQuery()) {
+            List<User> users = new ArrayList<>();
+            while (rs.next()) {
+                users.add(mapUser(rs));
+            }
+            log.debug("Найдено пользователей: {}", users.size());
+            return users;
+        } catch (SQLException e) {
+            log.error("Ошибка при получении списка пользователей", e);
+            throw new DatabaseOperationException("получения списка пользователей", e);
+        }
+    }
+
+    @Override
+    public List<UserSummary> findAllSummaries() {
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement(SELECT_USERS);
+             ResultSet rs = statement.executeQuery()) {
+            List<UserSummary> users = new ArrayList<>();
+            while (rs.next()) {
+                users.add(mapSummary(rs));
+            }
+            log.debug("Найдено пользователей (проекция): {}", users.size());
+            return users;
+        } catch (SQLException e) {
+            log.error("Ошибка при получении списка пользователей", e);
+            throw new DatabaseOperationException("получения списка пользователей", e);
+        }
+    }
+
+    @Override
+    public Optional<UserSummary> findSummaryById(Long id) {
+        if (id == null) {
+            log.warn("Попытка поиска пользователя с null-ID");
+            return Optional.empty();
+        }
+
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement(FIND_BY_ID)) {
+            statement.setLong(1, id);
+            try (ResultSet rs = statement.executeQuery()) {
+                if (rs.next()) {
+                    return Optional.of(mapSummary(rs));
+                }
+            }
+            log.warn("Пользователь с ID={} не найден", id);
+            return Optional.empty();
+        } catch (SQLException e) {
+            log.error("Ошибка при поиске пользователя по ID={}", id, e);
+            throw new DatabaseOperationException("поиска пользователя", e);
+        }
+    }
+
+    @Override
+    public void update(User user) {
+        validateUserWithId(user, "update");
+        UserValidator.validateUser(user);
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement(UPDATE)) {
+            bindUser(statement, user);
+            statement.setLong(4, user.getId());
+            if (statement.executeUpdate() == 0) {
+                throw new UserNotFoundException(user.getId());
+            }
+            log.info("Пользователь обновлен: ID={}", user.getId());
+        } catch (SQLException e) {
+            if (UNIQUE_VIOLATION.equals(e.getSQLState())) {
+                throw new UserAlreadyExistsException(user.getEmail());
+            }
+            log.error("Ошибка при обновлении пользователя: ID={}", user.getId(), e);
+            throw new DatabaseOperationException("Обновления пользователя", e);
+        }
+    }
+
+    @Override
+    public void delete(User user) {
+        validateUserWithId(user, "delete");
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement(DELETE)) {
+            statement.setLong(1, user.getId());
+            if (statement.executeUpdate() == 0) {
+                log.warn("Пользователь для удаления не найден: ID={}", user.getId());
+                return;
+            }
+            log.info("Пользователь удален: ID={}", user.getId());
+        } catch (SQLException e) {
+            log.error("Ошибка при удалении пользователя: ID={}", user.getId(), e);
+            throw new DatabaseOperationException("Удаления пользователя", e);
+        }
+    }
+
+    private static void bindUser(PreparedStatement statement, User user) throws SQLException {
+        statement.setString(1, user.getName());
+        statement.setString(2, user.getEmail());
+        statement.setInt(3, user.getAge());
+    }
+
+    private static User mapUser(ResultSet rs) throws SQLException {
+        return User.builder()
+                .id(rs.getLong(1))
+                .name(rs.getString(2))
+                .email(rs.getString(3))
+                .age(rs.getInt(4))
+                .build();
+    }
+
+    private static UserSummary mapSummary(ResultSet rs) throws SQLException {
+        return new UserSummary(rs.getLong(1), rs.getString(2), rs.getString(3), rs.getInt(4));
+    }
+
+    private void validateUserWithId(User user, String operation) {
+        if (user == null) {
+            log.error("Попытка {} null-пользователя", operation);
+            throw new UserValidationException("Пользователь не может быть null для операции: " + operation);
+        }
+        if (user.getId() == null) {
+            log.error("Попытка {} пользователя без ID", operation);
+            throw new UserValidationException("ID пользователя не может быть null для операции: " + operation);
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package com.example.userservice.dao;
 
+import com.example.userservice.dto.UserSummary;
 import com.example.userservice.model.User;
 import java.util.List;
 import java.util.Optional;
@@ -11,5 +12,9 @@ public interface UserDAO {
     void update(User user);
     void delete(User user);
     boolean existsByEmail(String email);
+
+    // Только для чтения: без managed-сущностей и снимков для dirty checking
+    List<UserSummary> findAllSummaries();
+    Optional<UserSummary> findSummaryById(Long id);
 }
 
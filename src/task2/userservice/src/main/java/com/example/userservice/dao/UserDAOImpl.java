@@ -1,10 +1,12 @@
 package com.example.userservice.dao;
 
+import com.example.userservice.dto.UserSummary;
 import com.example.userservice.exception.*;
 import com.example.userservice.model.User;
 import com.example.userservice.util.HibernateUtil;
 import com.example.userservice.util.UserValidator;
 import lombok.extern.slf4j.Slf4j;
+import org.hibernate.FlushMode;
 import org.hibernate.Session;
 import org.hibernate.Transaction;
 import org.hibernate.query.Query;
@@ -14,6 +16,8 @@ import java.util.Optional;
 
 @Slf4j
 public class UserDAOImpl implements UserDAO {
+    private static final String SUMMARY_QUERY =
+            "SELECT new com.example.userservice.dto.UserSummary(u.id, u.name, u.email, u.age) FROM User u";
 
     @Override
     public boolean existsByEmail(String email) {
@@ -87,6 +91,42 @@ public class UserDAOImpl implements UserDAO {
         }
     }
 
+    @Override
+    public List<UserSummary> findAllSummaries() {
+        try (Session session = openReadOnlySession()) {
+            List<UserSummary> users = session.createQuery(SUMMARY_QUERY, UserSummary.class)
+                    .setReadOnly(true)
+                    .getResultList();
+            log.debug("Найдено пользователей (проекция): {}", users.size());
+            return users;
+        } catch (Exception e) {
+            log.error("Ошибка при получении списка пользователей", e);
+            throw new DatabaseOperationException("получения списка пользователей", e);
+        }
+    }
+
+    @Override
+    public Optional<UserSummary> findSummaryById(Long id) {
+        if (id == null) {
+            log.warn("Попытка поиска пользователя с null-ID");
+            return Optional.empty();
+        }
+
+        try (Session session = openReadOnlySession()) {
+            Optional<UserSummary> user = session.createQuery(SUMMARY_QUERY + " WHERE u.id = :id", UserSummary.class)
+                    .setParameter("id", id)
+                    .setReadOnly(true)
+                    .uniqueResultOptional();
+            if (user.isEmpty()) {
+                log.warn("Пользователь с ID={} не найден", id);
+            }
+            return user;
+        } catch (Exception e) {
+            log.error("Ошибка при поиске пользователя по ID={}", id, e);
+            throw new DatabaseOperationException("поиска пользователя", e);
+        }
+    }
+
     @Override
     public void update(User user) {
         validateUserWithId(user, "update");
@@ -119,6 +159,13 @@ public class UserDAOImpl implements UserDAO {
         }
     }
 
+    private Session openReadOnlySession() {
+        Session session = HibernateUtil.getSessionFactory().openSession();
+        session.setDefaultReadOnly(true);
+        session.setHibernateFlushMode(FlushMode.MANUAL);
+        return session;
+    }
+
     private void validateUser(User user, String operation) {
         if (user == null) {
             log.error("Попытка {} null-пользователя", operation);
@@ -0,0 +1,5 @@
+package com.example.userservice.dto;
+
+// Read-only проекция пользователя для отображения списков и поиска
+public record UserSummary(Long id, String name, String email, Integer age) {
+}
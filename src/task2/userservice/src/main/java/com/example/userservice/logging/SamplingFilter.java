@@ -0,0 +1,56 @@
+package com.example.userservice.logging;
+
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.core.Filter;
+import org.apache.logging.log4j.core.LogEvent;
+import org.apache.logging.log4j.core.config.Node;
+import org.apache.logging.log4j.core.config.plugins.Plugin;
+import org.apache.logging.log4j.core.config.plugins.PluginAttribute;
+import org.apache.logging.log4j.core.config.plugins.PluginFactory;
+import org.apache.logging.log4j.core.filter.AbstractFilter;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+// Пропускает каждое rate-е событие уровня level и ниже; более важные события проходят всегда
+@Plugin(name = "SamplingFilter", category = Node.CATEGORY, elementType = Filter.ELEMENT_TYPE, printObject = true)
+public final class SamplingFilter extends AbstractFilter {
+    private final Level level;
+    private final int rate;
+    private final AtomicLong counter = new AtomicLong();
+
+    private SamplingFilter(Level level, int rate, Result onMatch, Result onMismatch) {
+        super(onMatch, onMismatch);
+        this.level = level;
+        this.rate = rate;
+    }
+
+    @PluginFactory
+    public static SamplingFilter createFilter(
+            @PluginAttribute(value = "level", defaultString = "DEBUG") String level,
+            @PluginAttribute(value = "rate", defaultInt = 10) int rate,
+            @PluginAttribute(value = "onMatch", defaultString = "NEUTRAL") String onMatch,
+            @PluginAttribute(value = "onMismatch", defaultString = "DENY") String onMismatch) {
+        if (rate < 1) {
+            throw new IllegalArgumentException("rate должен быть положительным: " + rate);
+        }
+        return new SamplingFilter(Level.toLevel(level, Level.DEBUG), rate,
+                Result.toResult(onMatch, Result.NEUTRAL), Result.toResult(onMismatch, Result.DENY));
+    }
+
+    @Override
+    public Result filter(LogEvent event) {
+        return filter(event.getLevel());
+    }
+
+    Result filter(Level eventLevel) {
+        if (eventLevel.intLevel() < level.intLevel()) {
+            return onMatch;
+        }
+        return counter.getAndIncrement() % rate == 0 ? onMatch : onMismatch;
+    }
+
+    @Override
+    public String toString() {
+        return "SamplingFilter[level=" + level + ", rate=" + rate + "]";
+    }
+}
@@ -0,0 +1,54 @@
+package com.example.userservice.logging;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.core.config.Configurator;
+
+import java.util.Arrays;
+
+// Уровень трассировки SQL Hibernate, переключаемый без перезапуска
+@Slf4j
+public enum SqlTraceLevel {
+    OFF("off", Level.INFO, Level.INFO),
+    SQL("sql", Level.DEBUG, Level.INFO),
+    BIND("bind", Level.DEBUG, Level.TRACE);
+
+    static final String SQL_LOGGER = "org.hibernate.SQL";
+    static final String BIND_LOGGER = "org.hibernate.orm.jdbc.bind";
+
+    private final String label;
+    private final Level sqlLevel;
+    private final Level bindLevel;
+
+    SqlTraceLevel(String label, Level sqlLevel, Level bindLevel) {
+        this.label = label;
+        this.sqlLevel = sqlLevel;
+        this.bindLevel = bindLevel;
+    }
+
+    public String getLabel() {
+        return label;
+    }
+
+    // Уровни меняются в LoggerConfig; фильтры BurstFilter/SamplingFilter из log4j2.xml сохраняются
+    public void apply() {
+        Configurator.setLevel(SQL_LOGGER, sqlLevel);
+        Configurator.setLevel(BIND_LOGGER, bindLevel);
+        log.info("Трассировка SQL: {}", label);
+    }
+
+    public static SqlTraceLevel current() {
+        if (LogManager.getLogger(BIND_LOGGER).isTraceEnabled()) {
+            return BIND;
+        }
+        return LogManager.getLogger(SQL_LOGGER).isDebugEnabled() ? SQL : OFF;
+    }
+
+    public static SqlTraceLevel fromLabel(String label) {
+        return Arrays.stream(values())
+                .filter(level -> level.label.equalsIgnoreCase(label))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("Неизвестный уровень трассировки SQL: " + label));
+    }
+}
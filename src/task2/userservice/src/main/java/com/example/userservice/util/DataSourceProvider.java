@@ -0,0 +1,48 @@
+package com.example.userservice.util;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.Properties;
+
+// Пул JDBC-соединений для JdbcUserDAO; параметры подключения берутся из настроек Hibernate
+@Slf4j
+public class DataSourceProvider {
+    private static final String POOL_SIZE_PROPERTY = "app.jdbc.pool-size";
+    private static final int DEFAULT_POOL_SIZE = 10;
+
+    @Getter
+    private static final HikariDataSource dataSource = buildDataSource();
+
+    private static HikariDataSource buildDataSource() {
+        Properties settings = HibernateSettings.resolve();
+
+        HikariConfig config = new HikariConfig();
+        config.setPoolName("UserServiceJdbcPool");
+        config.setDriverClassName(settings.getProperty("hibernate.connection.driver_class"));
+        config.setJdbcUrl(settings.getProperty("hibernate.connection.url"));
+        config.setUsername(settings.getProperty("hibernate.connection.username"));
+        config.setPassword(settings.getProperty("hibernate.connection.password"));
+        config.setMaximumPoolSize(Integer.getInteger(POOL_SIZE_PROPERTY, DEFAULT_POOL_SIZE));
+
+        // Кэш серверных prepared statements PgJDBC живет в каждом соединении пула:
+        // повторные запросы не разбираются и не планируются заново
+        if (config.getJdbcUrl().startsWith("jdbc:postgresql:")) {
+            config.addDataSourceProperty("prepareThreshold", "1");
+            config.addDataSourceProperty("preparedStatementCacheQueries", "256");
+            config.addDataSourceProperty("preparedStatementCacheSizeMiB", "5");
+        }
+
+        log.info("Создан пул JDBC-соединений: url={}, size={}", config.getJdbcUrl(), config.getMaximumPoolSize());
+        return new HikariDataSource(config);
+    }
+
+    public static void shutdown() {
+        if (!dataSource.isClosed()) {
+            dataSource.close();
+            log.info("Пул JDBC-соединений закрыт");
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package com.example.userservice.util;
+
+import com.example.userservice.model.User;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.cfg.Configuration;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.Properties;
+
+// Сборка настроек Hibernate: hibernate.cfg.xml, профиль запуска и системные свойства hibernate.*
+@Slf4j
+public class HibernateSettings {
+    private static final String PROFILE_PROPERTY = "app.profile";
+    private static final String PROFILE_ENV = "APP_PROFILE";
+
+    public static Configuration createConfiguration() {
+        Configuration configuration = new Configuration()
+                .configure()
+                .addAnnotatedClass(User.class);
+        applyProfile(configuration);
+        applySystemOverrides(configuration);
+        return configuration;
+    }
+
+    // Итоговые настройки без сборки SessionFactory (например, для JDBC-пула)
+    public static Properties resolve() {
+        return createConfiguration().getProperties();
+    }
+
+    // Профиль запуска (-Dapp.profile=prod или APP_PROFILE=prod) подключает hibernate-<профиль>.properties
+    private static void applyProfile(Configuration configuration) {
+        String profile = System.getProperty(PROFILE_PROPERTY, System.getenv(PROFILE_ENV));
+        if (profile == null || profile.isBlank()) {
+            return;
+        }
+        String resource = "hibernate-" + profile.trim() + ".properties";
+        try (InputStream in = HibernateSettings.class.getClassLoader().getResourceAsStream(resource)) {
+            if (in == null) {
+                log.warn("Файл профиля {} не найден, используется hibernate.cfg.xml", resource);
+                return;
+            }
+            Properties properties = new Properties();
+            properties.load(in);
+            configuration.addProperties(properties);
+            log.info("Применен профиль запуска: {}", profile);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Ошибка чтения " + resource, e);
+        }
+    }
+
+    // Системные свойства hibernate.* (-Dhibernate.log_slow_query=50 и т.п.) важнее hibernate.cfg.xml
+    private static void applySystemOverrides(Configuration configuration) {
+        System.getProperties().stringPropertyNames().stream()
+                .filter(name -> name.startsWith("hibernate."))
+                .forEach(name -> configuration.setProperty(name, System.getProperty(name)));
+    }
+}
@@ -0,0 +1,24 @@
+package com.example.userservice.util;
+
+// Статистика Hibernate, публикуемая через JMX
+public interface HibernateStatisticsMXBean {
+    long getSessionOpenCount();
+
+    long getSessionCloseCount();
+
+    long getEntityLoadCount();
+
+    long getEntityFetchCount();
+
+    long getQueryExecutionCount();
+
+    long getQueryExecutionMaxTime();
+
+    String getQueryExecutionMaxTimeQueryString();
+
+    String[] getQuerySummaries();
+
+    String[] getSlowQueries();
+
+    void clear();
+}
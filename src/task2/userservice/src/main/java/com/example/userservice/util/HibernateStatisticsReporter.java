@@ -0,0 +1,139 @@
+package com.example.userservice.util;
+
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.stat.QueryStatistics;
+import org.hibernate.stat.Statistics;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Map;
+
+@Slf4j
+public class HibernateStatisticsReporter implements HibernateStatisticsMXBean {
+    public static final String OBJECT_NAME = "com.example.userservice:type=HibernateStatistics";
+
+    private final Statistics statistics;
+
+    public HibernateStatisticsReporter(Statistics statistics) {
+        this.statistics = statistics;
+    }
+
+    // Создает репортер и регистрирует его в платформенном MBeanServer
+    public static HibernateStatisticsReporter register(Statistics statistics) {
+        HibernateStatisticsReporter reporter = new HibernateStatisticsReporter(statistics);
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            ObjectName name = new ObjectName(OBJECT_NAME);
+            if (server.isRegistered(name)) {
+                server.unregisterMBean(name);
+            }
+            server.registerMBean(reporter, name);
+            log.debug("Статистика Hibernate зарегистрирована в JMX: {}", OBJECT_NAME);
+        } catch (JMException e) {
+            log.warn("Не удалось зарегистрировать статистику Hibernate в JMX: {}", e.getMessage());
+        }
+        return reporter;
+    }
+
+    @Override
+    public long getSessionOpenCount() {
+        return statistics.getSessionOpenCount();
+    }
+
+    @Override
+    public long getSessionCloseCount() {
+        return statistics.getSessionCloseCount();
+    }
+
+    @Override
+    public long getEntityLoadCount() {
+        return statistics.getEntityLoadCount();
+    }
+
+    @Override
+    public long getEntityFetchCount() {
+        return statistics.getEntityFetchCount();
+    }
+
+    @Override
+    public long getQueryExecutionCount() {
+        return statistics.getQueryExecutionCount();
+    }
+
+    @Override
+    public long getQueryExecutionMaxTime() {
+        return statistics.getQueryExecutionMaxTime();
+    }
+
+    @Override
+    public String getQueryExecutionMaxTimeQueryString() {
+        return statistics.getQueryExecutionMaxTimeQueryString();
+    }
+
+    // Запросы отсортированы по суммарному времени выполнения, самые дорогие - первыми
+    @Override
+    public String[] getQuerySummaries() {
+        return Arrays.stream(statistics.getQueries())
+                .map(query -> Map.entry(query, statistics.getQueryStatistics(query)))
+                .sorted(Comparator.comparingLong(
+                        (Map.Entry<String, QueryStatistics> e) -> totalTime(e.getValue())).reversed())
+                .map(e -> formatQuery(e.getKey(), e.getValue()))
+                .toArray(String[]::new);
+    }
+
+    @Override
+    public String[] getSlowQueries() {
+        return statistics.getSlowQueries().entrySet().stream()
+                .sorted(Map.Entry.<String, Long>comparingByValue().reversed())
+                .map(e -> e.getValue() + " мс | " + e.getKey())
+                .toArray(String[]::new);
+    }
+
+    @Override
+    public void clear() {
+        statistics.clear();
+        log.info("Статистика Hibernate сброшена");
+    }
+
+    // Текстовый отчет для команды stats
+    public String report() {
+        StringBuilder sb = new StringBuilder()
+                .append("Сессии: открыто=").append(getSessionOpenCount())
+                .append(", закрыто=").append(getSessionCloseCount()).append('\n')
+                .append("Сущности: загружено=").append(getEntityLoadCount())
+                .append(", выборок=").append(getEntityFetchCount()).append('\n')
+                .append("Запросы: выполнено=").append(getQueryExecutionCount())
+                .append(", максимум=").append(getQueryExecutionMaxTime()).append(" мс");
+        if (getQueryExecutionMaxTimeQueryString() != null) {
+            sb.append(" (").append(getQueryExecutionMaxTimeQueryString()).append(')');
+        }
+        for (String summary : getQuerySummaries()) {
+            sb.append("\n  ").append(summary);
+        }
+        String[] slowQueries = getSlowQueries();
+        if (slowQueries.length > 0) {
+            sb.append("\nМедленные запросы:");
+            for (String slowQuery : slowQueries) {
+                sb.append("\n  ").append(slowQuery);
+            }
+        }
+        return sb.toString();
+    }
+
+    private static long totalTime(QueryStatistics stats) {
+        return stats.getExecutionCount() * stats.getExecutionAvgTime();
+    }
+
+    private static String formatQuery(String query, QueryStatistics stats) {
+        return String.format("%s | выполнений=%d, среднее=%d мс, максимум=%d мс, строк=%d",
+                query,
+                stats.getExecutionCount(),
+                stats.getExecutionAvgTime(),
+                stats.getExecutionMaxTime(),
+                stats.getExecutionRowCount());
+    }
+}
@@ -1,6 +1,5 @@
 package com.example.userservice.util;
 
-import com.example.userservice.model.User;
 import lombok.Getter;
 import org.hibernate.SessionFactory;
 import org.hibernate.cfg.Configuration;
@@ -9,6 +8,8 @@ import org.hibernate.service.ServiceRegistry;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
+import java.util.concurrent.TimeUnit;
+
 public class HibernateUtil {
     @Getter
     private static final Logger logger = LogManager.getLogger(HibernateUtil.class);
@@ -16,15 +17,21 @@ public class HibernateUtil {
     @Getter
     private static final SessionFactory sessionFactory = buildSessionFactory();
 
+    @Getter
+    private static final HibernateStatisticsReporter statisticsReporter =
+            HibernateStatisticsReporter.register(sessionFactory.getStatistics());
+
     private static SessionFactory buildSessionFactory() {
+        long start = System.nanoTime();
         try {
-            Configuration configuration = new Configuration()
-                    .configure()
-                    .addAnnotatedClass(User.class);
+            Configuration configuration = HibernateSettings.createConfiguration();
             ServiceRegistry serviceRegistry = new StandardServiceRegistryBuilder()
                     .applySettings(configuration.getProperties())
                     .build();
-            return configuration.buildSessionFactory(serviceRegistry);
+            SessionFactory factory = configuration.buildSessionFactory(serviceRegistry);
+            logger.info("SessionFactory построен за {} мс",
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+            return factory;
         } catch (Throwable ex) {
             logger.error("Ошибка инициализации SessionFactory", ex);
             throw new ExceptionInInitializerError(ex);
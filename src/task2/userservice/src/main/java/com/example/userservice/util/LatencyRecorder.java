@@ -0,0 +1,75 @@
+package com.example.userservice.util;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+// Накопитель задержек одного потока; после прогона записи объединяются через merge.
+// Используется бенчмарком DAO и пакетным режимом CLI
+public class LatencyRecorder {
+    private static final int HISTOGRAM_BAR_WIDTH = 40;
+
+    private long[] samples = new long[1024];
+    private int count;
+
+    public void record(long nanos) {
+        if (count == samples.length) {
+            samples = Arrays.copyOf(samples, count * 2);
+        }
+        samples[count++] = nanos;
+    }
+
+    public int count() {
+        return count;
+    }
+
+    public static LatencyRecorder merge(Iterable<LatencyRecorder> recorders) {
+        LatencyRecorder merged = new LatencyRecorder();
+        for (LatencyRecorder recorder : recorders) {
+            for (int i = 0; i < recorder.count; i++) {
+                merged.record(recorder.samples[i]);
+            }
+        }
+        Arrays.sort(merged.samples, 0, merged.count);
+        return merged;
+    }
+
+    // Перцентиль в микросекундах; вызывать только у результата merge
+    public double percentileMicros(double percentile) {
+        if (count == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(percentile / 100.0 * count) - 1;
+        return samples[Math.max(0, Math.min(index, count - 1))] / (double) TimeUnit.MICROSECONDS.toNanos(1);
+    }
+
+    // Гистограмма с интервалами по степеням двойки в микросекундах; вызывать только у результата merge
+    public String histogram() {
+        if (count == 0) {
+            return "  нет данных\n";
+        }
+        int[] buckets = new int[64];
+        int maxBucket = 0;
+        for (int i = 0; i < count; i++) {
+            int bucket = bucketOf(TimeUnit.NANOSECONDS.toMicros(samples[i]));
+            buckets[bucket]++;
+            maxBucket = Math.max(maxBucket, bucket);
+        }
+        int minBucket = bucketOf(TimeUnit.NANOSECONDS.toMicros(samples[0]));
+        int maxCount = Arrays.stream(buckets).max().orElse(1);
+
+        StringBuilder sb = new StringBuilder();
+        for (int bucket = minBucket; bucket <= maxBucket; bucket++) {
+            long upper = 1L << bucket;
+            long lower = bucket == 0 ? 0 : upper >> 1;
+            int bar = (int) Math.round((double) buckets[bucket] / maxCount * HISTOGRAM_BAR_WIDTH);
+            sb.append(String.format("  %8d-%-8d мкс | %-" + HISTOGRAM_BAR_WIDTH + "s %d%n",
+                    lower, upper, "#".repeat(bar), buckets[bucket]));
+        }
+        return sb.toString();
+    }
+
+    // Интервал [2^(k-1), 2^k) мкс; нулевой - всё, что меньше 1 мкс
+    private static int bucketOf(long micros) {
+        return micros <= 0 ? 0 : 64 - Long.numberOfLeadingZeros(micros);
+    }
+}
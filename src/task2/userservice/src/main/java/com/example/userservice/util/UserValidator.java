@@ -4,21 +4,48 @@ import com.example.userservice.exception.UserValidationException;
 import com.example.userservice.model.User;
 import jakarta.validation.*;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
 import java.util.Set;
 import java.util.stream.Collectors;
 
 public class UserValidator {
-    public static void validateUser(User user) {
-        ValidatorFactory factory = Validation.buildDefaultValidatorFactory();
-        Validator validator = factory.getValidator();
+    // Фабрика строится один раз: сканирование метаданных ограничений дорогое, а Validator потокобезопасен
+    private static final ValidatorFactory FACTORY = Validation.buildDefaultValidatorFactory();
+    private static final Validator VALIDATOR = FACTORY.getValidator();
 
-        Set<ConstraintViolation<User>> violations = validator.validate(user);
+    public static void validateUser(User user) {
+        Set<ConstraintViolation<User>> violations = VALIDATOR.validate(user);
 
         if (!violations.isEmpty()) {
-            String errorMessage = violations.stream()
-                    .map(ConstraintViolation::getMessage)
-                    .collect(Collectors.joining(", "));
-            throw new UserValidationException(errorMessage);
+            throw new UserValidationException(joinMessages(violations));
+        }
+    }
+
+    // Пакетная проверка без исключений: возвращает нарушения только для невалидных записей
+    public static List<Violation> validateAll(Collection<User> users) {
+        List<Violation> result = new ArrayList<>();
+        int index = 0;
+        for (User user : users) {
+            Set<ConstraintViolation<User>> violations = VALIDATOR.validate(user);
+            if (!violations.isEmpty()) {
+                result.add(new Violation(index, user, violations.stream()
+                        .map(ConstraintViolation::getMessage)
+                        .toList()));
+            }
+            index++;
         }
+        return result;
+    }
+
+    private static String joinMessages(Set<ConstraintViolation<User>> violations) {
+        return violations.stream()
+                .map(ConstraintViolation::getMessage)
+                .collect(Collectors.joining(", "));
+    }
+
+    // index - позиция записи в переданной коллекции
+    public record Violation(int index, User user, List<String> messages) {
     }
-}
\ No newline at end of file
+}
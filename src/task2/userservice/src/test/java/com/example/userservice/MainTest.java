@@ -1,6 +1,7 @@
 package com.example.userservice;
 
 import com.example.userservice.dao.UserDAO;
+import com.example.userservice.dto.UserSummary;
 import com.example.userservice.exception.UserAlreadyExistsException;
 import com.example.userservice.exception.UserValidationException;
 import com.example.userservice.model.User;
@@ -89,26 +90,23 @@ class MainTest {
 
     @Test
     void listUsers_EmptyList() {
-        when(userDAO.findAll()).thenReturn(Collections.emptyList());
+        when(userDAO.findAllSummaries()).thenReturn(Collections.emptyList());
 
         assertDoesNotThrow(() -> main.listUsers());
-        verify(userDAO).findAll();
+        verify(userDAO).findAllSummaries();
+        verify(userDAO, never()).findAll();
     }
 
     @Test
     void findUser_Success() {
-        User testUser = User.builder()
-                .id(USER_ID)
-                .name(USER_NAME)
-                .email(USER_EMAIL)
-                .age(Integer.parseInt(USER_AGE))
-                .build();
+        UserSummary testUser = new UserSummary(USER_ID, USER_NAME, USER_EMAIL, Integer.parseInt(USER_AGE));
 
         when(scanner.nextLine()).thenReturn(String.valueOf(USER_ID));
-        when(userDAO.findById(USER_ID)).thenReturn(Optional.of(testUser));
+        when(userDAO.findSummaryById(USER_ID)).thenReturn(Optional.of(testUser));
 
         assertDoesNotThrow(() -> main.findUser());
-        verify(userDAO).findById(USER_ID);
+        verify(userDAO).findSummaryById(USER_ID);
+        verify(userDAO, never()).findById(any());
     }
 
     @Test
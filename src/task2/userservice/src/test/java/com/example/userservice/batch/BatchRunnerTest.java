@@ -0,0 +1,89 @@
+package com.example.userservice.batch;
+
+import com.example.userservice.dao.UserDAO;
+import com.example.userservice.model.User;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class BatchRunnerTest {
+    @Mock
+    private UserDAO userDAO;
+
+    @TempDir
+    private Path tempDir;
+
+    @Test
+    void readScript_ShouldSkipCommentsAndBlankLines() throws Exception {
+        Path script = tempDir.resolve("trace.txt");
+        Files.writeString(script, """
+                # прогон из прода
+                create;Alice;alice@example.com;30
+
+                find;1
+                update;1;Alice;alice@example.org;31
+                delete;1
+                """);
+
+        List<BatchOperation> operations = BatchRunner.readScript(script);
+
+        assertEquals(List.of(BatchOperation.Type.CREATE, BatchOperation.Type.FIND,
+                        BatchOperation.Type.UPDATE, BatchOperation.Type.DELETE),
+                operations.stream().map(BatchOperation::type).toList());
+        assertEquals(4, operations.get(1).lineNumber());
+    }
+
+    @Test
+    void parse_WithWrongArgumentCount_ShouldThrow() {
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+                () -> BatchOperation.parse("find;1;2", 7));
+        assertTrue(e.getMessage().startsWith("Строка 7"));
+    }
+
+    @Test
+    void parse_WithUnknownOperation_ShouldThrow() {
+        assertThrows(IllegalArgumentException.class, () -> BatchOperation.parse("drop;1", 1));
+    }
+
+    @Test
+    void run_ShouldExecuteAllOperationsAndCountErrors() throws Exception {
+        User existing = User.builder().id(1L).name("Alice").email("alice@example.com").age(30).build();
+        when(userDAO.findById(1L)).thenReturn(Optional.of(existing));
+        when(userDAO.findById(2L)).thenReturn(Optional.empty());
+
+        List<BatchOperation> operations = List.of(
+                BatchOperation.parse("create;Bob;bob@example.com;25", 1),
+                BatchOperation.parse("find;1", 2),
+                BatchOperation.parse("delete;1", 3),
+                BatchOperation.parse("delete;2", 4));
+
+        BatchReport report = new BatchRunner(userDAO, 2).run(operations);
+
+        assertEquals(3, report.succeeded());
+        assertEquals(1, report.failed());
+        assertEquals(1, report.errors().get(BatchOperation.Type.DELETE));
+        verify(userDAO).save(any(User.class));
+        verify(userDAO).delete(existing);
+        assertTrue(report.format().contains("Всего: 4 операций"));
+    }
+
+    @Test
+    void run_WithInvalidCreate_ShouldCountValidationError() throws Exception {
+        BatchReport report = new BatchRunner(userDAO, 1)
+                .run(List.of(BatchOperation.parse("create;;not-an-email;-1", 1)));
+
+        assertEquals(1, report.failed());
+        verify(userDAO, never()).save(any());
+    }
+}
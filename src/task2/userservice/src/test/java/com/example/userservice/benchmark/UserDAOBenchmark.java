@@ -0,0 +1,284 @@
+package com.example.userservice.benchmark;
+
+import com.example.userservice.Main;
+import com.example.userservice.dao.UserDAO;
+import com.example.userservice.logging.SqlTraceLevel;
+import com.example.userservice.model.User;
+import com.example.userservice.util.DataSourceProvider;
+import com.example.userservice.util.HibernateUtil;
+import com.example.userservice.util.LatencyRecorder;
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.core.config.Configurator;
+import org.hibernate.SessionFactory;
+import org.hibernate.StatelessSession;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/*
+ * Нагрузочный прогон операций UserDAO на встроенной H2 в режиме PostgreSQL, без сети.
+ *
+ * Запуск: mvn -Pbenchmark test-compile exec:java
+ * Параметры (-D...): bench.sizes=1000,10000,100000  bench.threads=1,4,8  bench.dao=hibernate,jdbc
+ *                    bench.operations=save,findById,...  bench.warmup=2  bench.measure=5 (секунды)
+ *                    bench.sqlTrace=off,sql,bind - стоимость трассировки SQL через асинхронные логгеры
+ * Эффект bytecode enhancement: сравнить операции flush/update и время холодного старта
+ * со сборкой, где плагин hibernate-maven-plugin отключен.
+ */
+public class UserDAOBenchmark {
+    private static final String H2_URL =
+            "jdbc:h2:mem:bench;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH;DB_CLOSE_DELAY=-1";
+    private static final String EMAIL_DOMAIN = "@bench.local";
+    private static final int FLUSH_CONTEXT_SIZE = 100;
+
+    private final SessionFactory sessionFactory;
+    private final UserDAO userDAO;
+    private final AtomicLong emailSequence = new AtomicLong();
+    private long[] seededIds = new long[0];
+
+    UserDAOBenchmark(SessionFactory sessionFactory, UserDAO userDAO) {
+        this.sessionFactory = sessionFactory;
+        this.userDAO = userDAO;
+    }
+
+    public static void main(String[] args) throws Exception {
+        configureEmbeddedDatabase();
+        Configurator.setLevel("com.example.userservice", Level.toLevel(System.getProperty("bench.logLevel"), Level.WARN));
+        List<SqlTraceLevel> traceLevels = Arrays.stream(System.getProperty("bench.sqlTrace", "off").split(","))
+                .map(String::trim)
+                .map(SqlTraceLevel::fromLabel)
+                .toList();
+
+        List<Integer> sizes = intList(System.getProperty("bench.sizes", "1000,10000,100000"));
+        List<Integer> threads = intList(System.getProperty("bench.threads", "1,4,8"));
+        List<Operation> operations = System.getProperty("bench.operations") == null
+                ? List.of(Operation.values())
+                : Arrays.stream(System.getProperty("bench.operations").split(","))
+                        .map(String::trim)
+                        .map(Operation::fromName)
+                        .toList();
+        long warmupNanos = TimeUnit.SECONDS.toNanos(Long.getLong("bench.warmup", 2));
+        long measureNanos = TimeUnit.SECONDS.toNanos(Long.getLong("bench.measure", 5));
+
+        long bootStart = System.nanoTime();
+        SessionFactory sessionFactory = HibernateUtil.getSessionFactory();
+        System.out.printf("Холодный старт SessionFactory: %d мс%n",
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - bootStart));
+
+        List<String> daoNames = Arrays.stream(System.getProperty("bench.dao", "hibernate").split(","))
+                .map(String::trim)
+                .toList();
+
+        System.out.printf("%-6s %-10s %-18s %8s %7s %9s %11s %9s %9s %9s %9s %9s%n",
+                "sql", "dao", "operation", "rows", "threads", "ops", "ops/sec",
+                "p50 us", "p90 us", "p99 us", "p99.9 us", "max us");
+        try {
+            for (SqlTraceLevel traceLevel : traceLevels) {
+                traceLevel.apply();
+                for (Operation operation : operations) {
+                    for (int size : sizes) {
+                        for (int threadCount : threads) {
+                            // Реализации идут подряд на одинаковых данных - удобно сравнивать построчно
+                            for (String daoName : daoNames) {
+                                UserDAOBenchmark benchmark =
+                                        new UserDAOBenchmark(sessionFactory, Main.createUserDAO(daoName));
+                                benchmark.seed(size);
+                                benchmark.run(operation, threadCount, warmupNanos);
+                                benchmark.seed(size);
+                                Result result = benchmark.run(operation, threadCount, measureNanos);
+                                System.out.printf("%-6s %-10s %-18s %8d %7d %9d %11.1f %9.1f %9.1f %9.1f %9.1f %9.1f%n",
+                                        traceLevel.getLabel(), daoName, operation.label, size, threadCount, result.operations(),
+                                        result.opsPerSecond(),
+                                        result.latencies().percentileMicros(50), result.latencies().percentileMicros(90),
+                                        result.latencies().percentileMicros(99), result.latencies().percentileMicros(99.9),
+                                        result.latencies().percentileMicros(100));
+                            }
+                        }
+                    }
+                }
+            }
+        } finally {
+            if (daoNames.contains("jdbc")) {
+                DataSourceProvider.shutdown();
+            }
+            HibernateUtil.shutdown();
+        }
+    }
+
+    // Свойства hibernate.* из системных свойств перекрывают hibernate.cfg.xml (см. HibernateSettings)
+    static void configureEmbeddedDatabase() {
+        System.setProperty("hibernate.connection.driver_class", "org.h2.Driver");
+        System.setProperty("hibernate.connection.url", System.getProperty("bench.url", H2_URL));
+        System.setProperty("hibernate.connection.username", "sa");
+        System.setProperty("hibernate.connection.password", "");
+        System.setProperty("hibernate.dialect", "org.hibernate.dialect.H2Dialect");
+        System.setProperty("hibernate.hbm2ddl.auto", "create-drop");
+        System.setProperty("hibernate.show_sql", "false");
+        System.setProperty("hibernate.format_sql", "false");
+    }
+
+    // Очищает таблицу и заливает size пользователей одной транзакцией
+    void seed(int size) {
+        long[] ids = new long[size];
+        try (StatelessSession session = sessionFactory.openStatelessSession()) {
+            session.getTransaction().begin();
+            session.createNativeMutationQuery("TRUNCATE TABLE users RESTART IDENTITY").executeUpdate();
+            for (int i = 0; i < size; i++) {
+                User user = newUser(i);
+                session.insert(user);
+                ids[i] = user.getId();
+            }
+            session.getTransaction().commit();
+        }
+        seededIds = ids;
+    }
+
+    Result run(Operation operation, int threadCount, long durationNanos) throws Exception {
+        Queue<Long> deletable = new ConcurrentLinkedQueue<>();
+        if (operation == Operation.DELETE) {
+            List<Long> ids = new ArrayList<>(seededIds.length);
+            for (long id : seededIds) {
+                ids.add(id);
+            }
+            Collections.shuffle(ids);
+            deletable.addAll(ids);
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(threadCount);
+        try {
+            long start = System.nanoTime();
+            long deadline = start + durationNanos;
+            List<Future<LatencyRecorder>> futures = new ArrayList<>();
+            for (int t = 0; t < threadCount; t++) {
+                futures.add(executor.submit(() -> {
+                    LatencyRecorder recorder = new LatencyRecorder();
+                    while (System.nanoTime() < deadline) {
+                        long opStart = System.nanoTime();
+                        if (!execute(operation, deletable)) {
+                            break;
+                        }
+                        recorder.record(System.nanoTime() - opStart);
+                    }
+                    return recorder;
+                }));
+            }
+            List<LatencyRecorder> recorders = new ArrayList<>();
+            for (Future<LatencyRecorder> future : futures) {
+                recorders.add(future.get());
+            }
+            long elapsed = System.nanoTime() - start;
+            LatencyRecorder merged = LatencyRecorder.merge(recorders);
+            return new Result(merged.count(), merged.count() / (elapsed / 1e9), merged);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    // false - операцию больше нечем выполнять (например, все строки уже удалены)
+    private boolean execute(Operation operation, Queue<Long> deletable) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        switch (operation) {
+            case SAVE -> userDAO.save(User.builder()
+                    .name("Bench")
+                    .email("new" + emailSequence.incrementAndGet() + EMAIL_DOMAIN)
+                    .age(random.nextInt(0, 101))
+                    .build());
+            case FIND_BY_ID -> userDAO.findById(randomSeededId(random));
+            case FIND_ALL -> userDAO.findAll();
+            case FIND_SUMMARY_BY_ID -> userDAO.findSummaryById(randomSeededId(random));
+            case FIND_ALL_SUMMARIES -> userDAO.findAllSummaries();
+            case UPDATE -> {
+                int index = random.nextInt(seededIds.length);
+                User user = newUser(index);
+                user.setId(seededIds[index]);
+                user.setName("Updated " + random.nextInt(1000));
+                userDAO.update(user);
+            }
+            case DELETE -> {
+                Long id = deletable.poll();
+                if (id == null) {
+                    return false;
+                }
+                User user = newUser(0);
+                user.setId(id);
+                userDAO.delete(user);
+            }
+            case FLUSH -> flushPersistenceContext(random);
+            case EXISTS_BY_EMAIL -> userDAO.existsByEmail(random.nextBoolean()
+                    ? "user" + random.nextInt(seededIds.length) + EMAIL_DOMAIN
+                    : "missing" + random.nextInt() + EMAIL_DOMAIN);
+        }
+        return true;
+    }
+
+    // Flush сессии с FLUSH_CONTEXT_SIZE загруженными сущностями, из которых изменена одна:
+    // без enhancement dirty checking сравнивает снимки всех сущностей контекста
+    private void flushPersistenceContext(ThreadLocalRandom random) {
+        sessionFactory.inTransaction(session -> {
+            List<User> users = session.createQuery("FROM User", User.class)
+                    .setMaxResults(FLUSH_CONTEXT_SIZE)
+                    .getResultList();
+            if (!users.isEmpty()) {
+                users.get(random.nextInt(users.size())).setName("Flushed " + random.nextInt(1000));
+            }
+            session.flush();
+        });
+    }
+
+    private long randomSeededId(ThreadLocalRandom random) {
+        return seededIds[random.nextInt(seededIds.length)];
+    }
+
+    private static User newUser(int index) {
+        return User.builder()
+                .name("User " + index)
+                .email("user" + index + EMAIL_DOMAIN)
+                .age(index % 101)
+                .build();
+    }
+
+    private static List<Integer> intList(String value) {
+        return Arrays.stream(value.split(","))
+                .map(String::trim)
+                .map(Integer::valueOf)
+                .toList();
+    }
+
+    enum Operation {
+        SAVE("save"),
+        FIND_BY_ID("findById"),
+        FIND_ALL("findAll"),
+        FIND_SUMMARY_BY_ID("findSummaryById"),
+        FIND_ALL_SUMMARIES("findAllSummaries"),
+        UPDATE("update"),
+        DELETE("delete"),
+        FLUSH("flush"),
+        EXISTS_BY_EMAIL("existsByEmail");
+
+        private final String label;
+
+        Operation(String label) {
+            this.label = label;
+        }
+
+        static Operation fromName(String name) {
+            return Arrays.stream(values())
+                    .filter(op -> op.label.equalsIgnoreCase(name))
+                    .findFirst()
+                    .orElseThrow(() -> new IllegalArgumentException("Неизвестная операция: " + name));
+        }
+    }
+
+    record Result(int operations, double opsPerSecond, LatencyRecorder latencies) {
+    }
+}
@@ -0,0 +1,78 @@
+package com.example.userservice.benchmark;
+
+import com.example.userservice.model.User;
+import com.example.userservice.util.UserValidator;
+import jakarta.validation.Validation;
+import jakarta.validation.ValidatorFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/*
+ * Микробенчмарк валидации: фабрика на каждый вызов (прежняя реализация) против общего Validator
+ * и пакетного validateAll.
+ *
+ * Запуск: mvn -Pbenchmark test-compile exec:java -Dbenchmark.mainClass=com.example.userservice.benchmark.UserValidatorBenchmark
+ * Параметры (-D...): bench.users=10000  bench.rounds=5
+ */
+public class UserValidatorBenchmark {
+    private static final int PER_CALL_FACTORY_LIMIT = 200;
+
+    public static void main(String[] args) {
+        int userCount = Integer.getInteger("bench.users", 10_000);
+        int rounds = Integer.getInteger("bench.rounds", 5);
+        List<User> users = generateUsers(userCount);
+
+        System.out.printf("%-22s %9s %12s %12s%n", "mode", "users", "total ms", "us/user");
+        for (int round = 0; round < rounds; round++) {
+            // Первый раунд - прогрев JIT и метаданных ограничений
+            boolean print = round > 0;
+            // Построение фабрики занимает миллисекунды, поэтому прежний вариант меряется на подвыборке
+            measure("factory-per-call", users.subList(0, Math.min(PER_CALL_FACTORY_LIMIT, userCount)), print,
+                    UserValidatorBenchmark::validateWithNewFactory);
+            measure("shared-validator", users, print, batch -> batch.forEach(user -> {
+                try {
+                    UserValidator.validateUser(user);
+                } catch (RuntimeException ignored) {
+                    // невалидные записи - часть нагрузки
+                }
+            }));
+            measure("validateAll", users, print, UserValidator::validateAll);
+        }
+    }
+
+    private static void measure(String mode, List<User> users, boolean print, Consumer<List<User>> action) {
+        long start = System.nanoTime();
+        action.accept(users);
+        long elapsed = System.nanoTime() - start;
+        if (print) {
+            System.out.printf("%-22s %9d %12.1f %12.2f%n", mode, users.size(),
+                    elapsed / (double) TimeUnit.MILLISECONDS.toNanos(1),
+                    elapsed / (double) TimeUnit.MICROSECONDS.toNanos(1) / users.size());
+        }
+    }
+
+    private static void validateWithNewFactory(List<User> users) {
+        for (User user : users) {
+            try (ValidatorFactory factory = Validation.buildDefaultValidatorFactory()) {
+                factory.getValidator().validate(user);
+            }
+        }
+    }
+
+    // Каждая десятая запись невалидна, чтобы учитывалась и интерполяция сообщений
+    private static List<User> generateUsers(int count) {
+        List<User> users = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            boolean invalid = i % 10 == 0;
+            users.add(User.builder()
+                    .name(invalid ? "" : "User " + i)
+                    .email(invalid ? "invalid" : "user" + i + "@bench.local")
+                    .age(i % 101)
+                    .build());
+        }
+        return users;
+    }
+}
@@ -0,0 +1,170 @@
+package com.example.userservice.dao;
+
+import com.example.userservice.dto.UserSummary;
+import com.example.userservice.exception.UserNotFoundException;
+import com.example.userservice.exception.UserValidationException;
+import com.example.userservice.model.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CachingUserDAOTest {
+    @Mock
+    private UserDAO delegate;
+
+    private CachingUserDAO cachingDAO;
+
+    @BeforeEach
+    void setUp() {
+        cachingDAO = new CachingUserDAO(delegate, 2);
+    }
+
+    private static User user(Long id, String email) {
+        return User.builder().id(id).name("Test").email(email).age(30).build();
+    }
+
+    @Test
+    void findById_ShouldHitDelegateOnlyOnce() {
+        when(delegate.findById(1L)).thenReturn(Optional.of(user(1L, "a@example.com")));
+
+        cachingDAO.findById(1L);
+        Optional<User> second = cachingDAO.findById(1L);
+
+        assertTrue(second.isPresent());
+        assertEquals("a@example.com", second.get().getEmail());
+        verify(delegate, times(1)).findById(1L);
+    }
+
+    @Test
+    void findById_ShouldReturnCopyUnaffectedByCallerChanges() {
+        when(delegate.findById(1L)).thenReturn(Optional.of(user(1L, "a@example.com")));
+
+        cachingDAO.findById(1L).orElseThrow().setName("Changed");
+
+        assertEquals("Test", cachingDAO.findById(1L).orElseThrow().getName());
+    }
+
+    @Test
+    void findById_ShouldEvictLeastRecentlyUsed() {
+        when(delegate.findById(anyLong())).thenAnswer(inv -> Optional.of(user(inv.getArgument(0), "x@example.com")));
+
+        cachingDAO.findById(1L);
+        cachingDAO.findById(2L);
+        cachingDAO.findById(1L);
+        cachingDAO.findById(3L);
+        cachingDAO.findById(1L);
+        cachingDAO.findById(2L);
+
+        verify(delegate, times(1)).findById(1L);
+        verify(delegate, times(2)).findById(2L);
+    }
+
+    @Test
+    void existsByEmail_ShouldCacheNegativeResult() {
+        when(delegate.existsByEmail("new@example.com")).thenReturn(false);
+
+        assertFalse(cachingDAO.existsByEmail("new@example.com"));
+        assertFalse(cachingDAO.existsByEmail("new@example.com"));
+
+        verify(delegate, times(1)).existsByEmail("new@example.com");
+    }
+
+    @Test
+    void save_ShouldWriteThroughAndReplaceNegativeEntry() {
+        when(delegate.existsByEmail("new@example.com")).thenReturn(false);
+        cachingDAO.existsByEmail("new@example.com");
+
+        User user = user(5L, "new@example.com");
+        cachingDAO.save(user);
+
+        assertTrue(cachingDAO.existsByEmail("new@example.com"));
+        assertEquals(Optional.of(new UserSummary(5L, "Test", "new@example.com", 30)), cachingDAO.findSummaryById(5L));
+        verify(delegate, never()).findById(5L);
+        verify(delegate, never()).findSummaryById(5L);
+    }
+
+    @Test
+    void update_ShouldInvalidatePreviousEmail() {
+        when(delegate.findById(1L)).thenReturn(Optional.of(user(1L, "old@example.com")));
+        cachingDAO.findById(1L);
+
+        cachingDAO.update(user(1L, "new@example.com"));
+
+        assertFalse(cachingDAO.existsByEmail("old@example.com"));
+        assertTrue(cachingDAO.existsByEmail("new@example.com"));
+        assertEquals("new@example.com", cachingDAO.findById(1L).orElseThrow().getEmail());
+        verify(delegate, never()).existsByEmail(anyString());
+    }
+
+    @Test
+    void update_WhenDelegateFails_ShouldDropCachedEntry() {
+        when(delegate.findById(1L)).thenReturn(Optional.of(user(1L, "a@example.com")));
+        cachingDAO.findById(1L);
+        doThrow(new UserNotFoundException(1L)).when(delegate).update(any());
+
+        assertThrows(UserNotFoundException.class, () -> cachingDAO.update(user(1L, "b@example.com")));
+
+        cachingDAO.findById(1L);
+        verify(delegate, times(2)).findById(1L);
+    }
+
+    @Test
+    void update_NullUser_ShouldPropagateDelegateValidationError() {
+        doThrow(new UserValidationException("Пользователь не может быть null")).when(delegate).update(null);
+
+        assertThrows(UserValidationException.class, () -> cachingDAO.update(null));
+    }
+
+    @Test
+    void delete_NullUser_ShouldPropagateDelegateValidationError() {
+        doThrow(new UserValidationException("Пользователь не может быть null")).when(delegate).delete(null);
+
+        assertThrows(UserValidationException.class, () -> cachingDAO.delete(null));
+    }
+
+    @Test
+    void findById_WhenUpdatedDuringRead_ShouldNotCacheStaleValue() {
+        // Пока этот поток читает прежнее значение из БД, другой обновляет пользователя
+        when(delegate.findById(1L)).thenAnswer(inv -> {
+            cachingDAO.update(user(1L, "new@example.com"));
+            return Optional.of(user(1L, "old@example.com"));
+        }).thenReturn(Optional.of(user(1L, "new@example.com")));
+
+        assertEquals("old@example.com", cachingDAO.findById(1L).orElseThrow().getEmail());
+
+        assertEquals("new@example.com", cachingDAO.findById(1L).orElseThrow().getEmail());
+    }
+
+    @Test
+    void findById_WhenDeletedDuringRead_ShouldNotCacheDeletedUser() {
+        when(delegate.findById(1L)).thenAnswer(inv -> {
+            cachingDAO.delete(user(1L, "a@example.com"));
+            return Optional.of(user(1L, "a@example.com"));
+        }).thenReturn(Optional.empty());
+
+        cachingDAO.findById(1L);
+
+        assertTrue(cachingDAO.findById(1L).isEmpty());
+    }
+
+    @Test
+    void delete_ShouldInvalidateEntries() {
+        when(delegate.findById(1L)).thenReturn(Optional.of(user(1L, "a@example.com")), Optional.empty());
+        when(delegate.existsByEmail("a@example.com")).thenReturn(false);
+        cachingDAO.findById(1L);
+
+        cachingDAO.delete(user(1L, "a@example.com"));
+
+        assertTrue(cachingDAO.findById(1L).isEmpty());
+        assertFalse(cachingDAO.existsByEmail("a@example.com"));
+        verify(delegate).existsByEmail("a@example.com");
+    }
+}
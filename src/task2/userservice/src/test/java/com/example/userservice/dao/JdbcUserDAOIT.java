@@ -0,0 +1,155 @@
+package com.example.userservice.dao;
+
+import com.example.userservice.dto.UserSummary;
+import com.example.userservice.exception.UserAlreadyExistsException;
+import com.example.userservice.exception.UserNotFoundException;
+import com.example.userservice.model.User;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.postgresql.ds.PGSimpleDataSource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Testcontainers
+class JdbcUserDAOIT {
+    private static final String POSTGRES_IMAGE = "postgres:16";
+
+    private static final String USER1_NAME = "John Johnson";
+    private static final String USER1_EMAIL = "john@example.com";
+    private static final int USER1_AGE = 25;
+
+    private static final String USER2_NAME = "Alice";
+    private static final String USER2_EMAIL = "alice@example.com";
+    private static final int USER2_AGE = 30;
+
+    private static final String UPDATED_NAME = "Updated Name";
+
+    private static final long NON_EXISTENT_ID = 999L;
+
+    @Container
+    private static final PostgreSQLContainer<?> POSTGRES_CONTAINER = new PostgreSQLContainer<>(POSTGRES_IMAGE);
+
+    private static PGSimpleDataSource dataSource;
+    private UserDAO userDAO;
+
+    @BeforeAll
+    static void setup() throws SQLException {
+        dataSource = new PGSimpleDataSource();
+        dataSource.setUrl(POSTGRES_CONTAINER.getJdbcUrl());
+        dataSource.setUser(POSTGRES_CONTAINER.getUsername());
+        dataSource.setPassword(POSTGRES_CONTAINER.getPassword());
+
+        execute("""
+                CREATE TABLE users (
+                    id BIGSERIAL PRIMARY KEY,
+                    name VARCHAR(50) NOT NULL,
+                    email VARCHAR(100) UNIQUE NOT NULL,
+                    age INTEGER NOT NULL
+                )""");
+    }
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        userDAO = new JdbcUserDAO(dataSource);
+        execute("TRUNCATE TABLE users RESTART IDENTITY");
+    }
+
+    private static void execute(String sql) throws SQLException {
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement()) {
+            statement.execute(sql);
+        }
+    }
+
+    private User saveTestUser(String name, String email, int age) {
+        User user = User.builder()
+                .name(name)
+                .email(email)
+                .age(age)
+                .build();
+        userDAO.save(user);
+        return user;
+    }
+
+    @Test
+    void save_shouldAssignIdAndPersistUser() {
+        User user = saveTestUser(USER1_NAME, USER1_EMAIL, USER1_AGE);
+
+        assertNotNull(user.getId());
+        Optional<User> found = userDAO.findById(user.getId());
+        assertTrue(found.isPresent());
+        assertEquals(USER1_NAME, found.get().getName());
+        assertEquals(USER1_EMAIL, found.get().getEmail());
+        assertEquals(USER1_AGE, found.get().getAge());
+    }
+
+    @Test
+    void save_shouldRejectDuplicateEmail() {
+        saveTestUser(USER1_NAME, USER1_EMAIL, USER1_AGE);
+
+        assertThrows(UserAlreadyExistsException.class,
+                () -> saveTestUser(USER2_NAME, USER1_EMAIL, USER2_AGE));
+    }
+
+    @Test
+    void findAll_shouldReturnAllUsers() {
+        saveTestUser(USER1_NAME, USER1_EMAIL, USER1_AGE);
+        saveTestUser(USER2_NAME, USER2_EMAIL, USER2_AGE);
+
+        assertEquals(2, userDAO.findAll().size());
+        List<UserSummary> summaries = userDAO.findAllSummaries();
+        assertEquals(2, summaries.size());
+        assertTrue(summaries.stream().anyMatch(u -> u.email().equals(USER2_EMAIL)));
+    }
+
+    @Test
+    void update_shouldModifyExistingUser() {
+        User user = saveTestUser(USER1_NAME, USER1_EMAIL, USER1_AGE);
+        user.setName(UPDATED_NAME);
+
+        userDAO.update(user);
+
+        assertEquals(Optional.of(new UserSummary(user.getId(), UPDATED_NAME, USER1_EMAIL, USER1_AGE)),
+                userDAO.findSummaryById(user.getId()));
+    }
+
+    @Test
+    void update_shouldFailForMissingUser() {
+        User user = User.builder()
+                .id(NON_EXISTENT_ID)
+                .name(USER1_NAME)
+                .email(USER1_EMAIL)
+                .age(USER1_AGE)
+                .build();
+
+        assertThrows(UserNotFoundException.class, () -> userDAO.update(user));
+    }
+
+    @Test
+    void delete_shouldRemoveUser() {
+        User user = saveTestUser(USER1_NAME, USER1_EMAIL, USER1_AGE);
+
+        userDAO.delete(user);
+
+        assertFalse(userDAO.findById(user.getId()).isPresent());
+        assertFalse(userDAO.existsByEmail(USER1_EMAIL));
+    }
+
+    @Test
+    void existsByEmail_shouldReturnCorrectResult() {
+        saveTestUser(USER1_NAME, USER1_EMAIL, USER1_AGE);
+
+        assertTrue(userDAO.existsByEmail(USER1_EMAIL));
+        assertFalse(userDAO.existsByEmail("nonexistent@email.com"));
+    }
+}
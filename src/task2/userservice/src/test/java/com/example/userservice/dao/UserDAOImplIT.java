@@ -1,5 +1,6 @@
 package com.example.userservice.dao;
 
+import com.example.userservice.dto.UserSummary;
 import com.example.userservice.model.User;
 import com.example.userservice.util.HibernateUtil;
 import org.hibernate.Session;
@@ -186,4 +187,26 @@ class UserDAOImplIT {
             // Проверка
             assertFalse(result.isPresent());
         }
+
+        @Test
+        void findAllSummaries_shouldReturnProjections() {
+            User user1 = persistTestUser(USER1_NAME, USER1_EMAIL, USER1_AGE);
+            User user2 = persistTestUser(USER2_NAME, USER2_EMAIL, USER2_AGE);
+
+            List<UserSummary> users = userDAO.findAllSummaries();
+
+            assertEquals(2, users.size());
+            assertTrue(users.contains(new UserSummary(user1.getId(), USER1_NAME, USER1_EMAIL, USER1_AGE)));
+            assertTrue(users.contains(new UserSummary(user2.getId(), USER2_NAME, USER2_EMAIL, USER2_AGE)));
+        }
+
+        @Test
+        void findSummaryById_shouldReturnProjectionOrEmpty() {
+            User user = persistTestUser(USER1_NAME, USER1_EMAIL, USER1_AGE);
+
+            Optional<UserSummary> found = userDAO.findSummaryById(user.getId());
+
+            assertEquals(Optional.of(new UserSummary(user.getId(), USER1_NAME, USER1_EMAIL, USER1_AGE)), found);
+            assertFalse(userDAO.findSummaryById(NON_EXISTENT_ID).isPresent());
+        }
     }
\ No newline at end of file
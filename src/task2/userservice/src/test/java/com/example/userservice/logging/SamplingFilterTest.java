@@ -0,0 +1,48 @@
+package com.example.userservice.logging;
+
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.core.Filter;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SamplingFilterTest {
+    private static final int RATE = 10;
+
+    @Test
+    void filter_ShouldPassEveryNthSampledEvent() {
+        SamplingFilter filter = SamplingFilter.createFilter("DEBUG", RATE, null, null);
+
+        int passed = 0;
+        for (int i = 0; i < RATE * 5; i++) {
+            if (filter.filter(Level.DEBUG) == Filter.Result.NEUTRAL) {
+                passed++;
+            }
+        }
+
+        assertEquals(5, passed);
+    }
+
+    @Test
+    void filter_ShouldAlwaysPassMoreSevereEvents() {
+        SamplingFilter filter = SamplingFilter.createFilter("DEBUG", RATE, null, null);
+        filter.filter(Level.DEBUG);
+
+        assertEquals(Filter.Result.NEUTRAL, filter.filter(Level.INFO));
+        assertEquals(Filter.Result.NEUTRAL, filter.filter(Level.WARN));
+        assertEquals(Filter.Result.DENY, filter.filter(Level.DEBUG));
+    }
+
+    @Test
+    void filter_ShouldSampleMoreVerboseEvents() {
+        SamplingFilter filter = SamplingFilter.createFilter("DEBUG", RATE, null, null);
+        filter.filter(Level.TRACE);
+
+        assertEquals(Filter.Result.DENY, filter.filter(Level.TRACE));
+    }
+
+    @Test
+    void createFilter_WithNonPositiveRate_ShouldThrow() {
+        assertThrows(IllegalArgumentException.class, () -> SamplingFilter.createFilter("DEBUG", 0, null, null));
+    }
+}
@@ -0,0 +1,75 @@
+package com.example.userservice.util;
+
+import org.hibernate.stat.QueryStatistics;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class HibernateStatisticsReporterTest {
+    private static final String CHEAP_QUERY = "FROM User";
+    private static final String EXPENSIVE_QUERY = "SELECT COUNT(u) FROM User u WHERE u.email = :email";
+
+    @Mock
+    private Statistics statistics;
+
+    @Mock
+    private QueryStatistics cheapQueryStats;
+
+    @Mock
+    private QueryStatistics expensiveQueryStats;
+
+    private HibernateStatisticsReporter reporter;
+
+    @BeforeEach
+    void setUp() {
+        reporter = new HibernateStatisticsReporter(statistics);
+    }
+
+    @Test
+    void querySummaries_ShouldBeSortedByTotalTime() {
+        when(statistics.getQueries()).thenReturn(new String[]{CHEAP_QUERY, EXPENSIVE_QUERY});
+        when(statistics.getQueryStatistics(CHEAP_QUERY)).thenReturn(cheapQueryStats);
+        when(statistics.getQueryStatistics(EXPENSIVE_QUERY)).thenReturn(expensiveQueryStats);
+        when(cheapQueryStats.getExecutionCount()).thenReturn(2L);
+        when(cheapQueryStats.getExecutionAvgTime()).thenReturn(5L);
+        when(expensiveQueryStats.getExecutionCount()).thenReturn(100L);
+        when(expensiveQueryStats.getExecutionAvgTime()).thenReturn(3L);
+
+        String[] summaries = reporter.getQuerySummaries();
+
+        assertEquals(2, summaries.length);
+        assertTrue(summaries[0].startsWith(EXPENSIVE_QUERY));
+        assertTrue(summaries[0].contains("выполнений=100"));
+        assertTrue(summaries[1].startsWith(CHEAP_QUERY));
+    }
+
+    @Test
+    void report_ShouldContainCountersAndSlowQueries() {
+        when(statistics.getSessionOpenCount()).thenReturn(7L);
+        when(statistics.getEntityLoadCount()).thenReturn(3L);
+        when(statistics.getQueries()).thenReturn(new String[0]);
+        when(statistics.getSlowQueries()).thenReturn(Map.of(EXPENSIVE_QUERY, 450L));
+
+        String report = reporter.report();
+
+        assertTrue(report.contains("открыто=7"));
+        assertTrue(report.contains("загружено=3"));
+        assertTrue(report.contains("450 мс | " + EXPENSIVE_QUERY));
+    }
+
+    @Test
+    void clear_ShouldResetStatistics() {
+        reporter.clear();
+
+        verify(statistics).clear();
+    }
+}
@@ -4,6 +4,8 @@ import com.example.userservice.exception.UserValidationException;
 import com.example.userservice.model.User;
 import org.junit.jupiter.api.Test;
 
+import java.util.List;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 class UserValidatorTest {
@@ -77,4 +79,30 @@ class UserValidatorTest {
                 () -> UserValidator.validateUser(user),
                 "Age should not be more than " + MAX_ALLOWED_AGE);
     }
-}
\ No newline at end of file
+
+    @Test
+    void validateAll_ReturnsViolationsOnlyForInvalidRecords() {
+        User valid = User.builder()
+                .name(VALID_NAME)
+                .email(VALID_EMAIL)
+                .age(VALID_AGE)
+                .build();
+        User invalid = User.builder()
+                .name(BLANK_NAME)
+                .email(INVALID_EMAIL)
+                .age(VALID_AGE)
+                .build();
+
+        List<UserValidator.Violation> violations = UserValidator.validateAll(List.of(valid, invalid, valid));
+
+        assertEquals(1, violations.size());
+        assertEquals(1, violations.get(0).index());
+        assertSame(invalid, violations.get(0).user());
+        assertEquals(2, violations.get(0).messages().size());
+    }
+
+    @Test
+    void validateAll_EmptyCollection_NoViolations() {
+        assertTrue(UserValidator.validateAll(List.of()).isEmpty());
+    }
+}
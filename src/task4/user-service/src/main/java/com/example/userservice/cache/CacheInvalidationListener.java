@@ -0,0 +1,71 @@
+package com.example.userservice.cache;
+
+import com.example.userservice.config.AppConfig;
+import com.example.userservice.config.GenerationKeyGenerator;
+import com.example.userservice.config.KafkaConfig;
+import com.example.userservice.search.UserSearchService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.header.Header;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Принимает инвалидации от других экземпляров. Уникальная группа на экземпляр - каждый получает все сообщения;
+ * чтение с конца топика: при старте локальный кэш пуст и история не нужна.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "app.cache.invalidation.enabled", havingValue = "true", matchIfMissing = true)
+public class CacheInvalidationListener {
+
+    private final CacheManager cacheManager;
+    private final GenerationKeyGenerator generationKeyGenerator;
+    private final CacheInvalidationPublisher publisher;
+    private final ObjectProvider<UserSearchService> userSearchService;
+
+    @KafkaListener(
+            topics = KafkaConfig.USER_CACHE_INVALIDATION_TOPIC,
+            groupId = "user-cache-#{T(java.util.UUID).randomUUID()}",
+            properties = {
+                    "auto.offset.reset=latest",
+                    "key.deserializer=org.apache.kafka.common.serialization.StringDeserializer",
+                    "value.deserializer=org.apache.kafka.common.serialization.StringDeserializer"
+            })
+    public void onInvalidation(ConsumerRecord<String, String> record) {
+        Header origin = record.headers().lastHeader(CacheInvalidationPublisher.ORIGIN_HEADER);
+        if (origin != null && publisher.getInstanceId().equals(new String(origin.value(), StandardCharsets.UTF_8))) {
+            return;
+        }
+
+        List<Long> userIds = userIds(record);
+        // Страницы и поиск могли содержать этих пользователей; для пакета - один раз
+        generationKeyGenerator.nextGeneration();
+        Cache usersById = cacheManager.getCache(AppConfig.USERS_BY_ID_CACHE);
+        if (usersById != null) {
+            userIds.forEach(usersById::evict);
+        }
+        userSearchService.ifAvailable(search -> search.reload(userIds));
+        log.debug("Invalidated cached users {} (version {}) from another instance", userIds, record.value());
+    }
+
+    private static List<Long> userIds(ConsumerRecord<String, String> record) {
+        Header ids = record.headers().lastHeader(CacheInvalidationPublisher.USER_IDS_HEADER);
+        if (ids == null) {
+            return List.of(Long.valueOf(record.key()));
+        }
+        return Arrays.stream(new String(ids.value(), StandardCharsets.UTF_8).split(","))
+                .map(Long::valueOf)
+                .toList();
+    }
+}
@@ -0,0 +1,93 @@
+package com.example.userservice.cache;
+
+import com.example.userservice.config.KafkaConfig;
+import com.example.userservice.events.UserChangedEvent;
+import com.example.userservice.events.UsersChangedEvent;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.kafka.KafkaProperties;
+import org.springframework.boot.ssl.SslBundles;
+import org.springframework.kafka.core.DefaultKafkaProducerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * Рассылает инвалидацию кэша остальным экземплярам после коммита записи.
+ * Свой KafkaTemplate со строковыми сериализаторами и без linger: задержка важнее пропускной способности,
+ * а бином он не объявлен, чтобы не подменять автоконфигурированный шаблон событий.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "app.cache.invalidation.enabled", havingValue = "true", matchIfMissing = true)
+public class CacheInvalidationPublisher implements DisposableBean {
+
+    public static final String ORIGIN_HEADER = "origin";
+    // Пакетная инвалидация: id через запятую; ключ сообщения - batch-<экземпляр>
+    public static final String USER_IDS_HEADER = "user-ids";
+
+    // Экземпляр пропускает собственные сообщения: его кэш уже обновлен write-through
+    @Getter
+    private final String instanceId = UUID.randomUUID().toString();
+    private final DefaultKafkaProducerFactory<String, String> producerFactory;
+    private final KafkaTemplate<String, String> kafkaTemplate;
+
+    public CacheInvalidationPublisher(KafkaProperties kafkaProperties, ObjectProvider<SslBundles> sslBundles) {
+        Map<String, Object> props = kafkaProperties.buildProducerProperties(sslBundles.getIfAvailable());
+        props.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
+        props.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
+        props.put(ProducerConfig.LINGER_MS_CONFIG, 0);
+        props.put(ProducerConfig.COMPRESSION_TYPE_CONFIG, "none");
+        // Общие настройки продюсера включают идемпотентность (требует acks=all); инвалидации повтор не страшен
+        props.put(ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG, false);
+        props.put(ProducerConfig.ACKS_CONFIG, "1");
+        this.producerFactory = new DefaultKafkaProducerFactory<>(props);
+        this.kafkaTemplate = new KafkaTemplate<>(producerFactory);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserChanged(UserChangedEvent event) {
+        send(createRecord(event.userId().toString()), "user " + event.userId());
+    }
+
+    // Один пакет - одно сообщение: получатели увеличивают поколение один раз и перечитывают индекс одним запросом
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUsersChanged(UsersChangedEvent event) {
+        ProducerRecord<String, String> record = createRecord("batch-" + instanceId);
+        String ids = event.userIds().stream().map(String::valueOf).collect(Collectors.joining(","));
+        record.headers().add(USER_IDS_HEADER, ids.getBytes(StandardCharsets.UTF_8));
+        send(record, event.changes().size() + " users");
+    }
+
+    private ProducerRecord<String, String> createRecord(String key) {
+        String version = Long.toString(System.currentTimeMillis());
+        ProducerRecord<String, String> record = new ProducerRecord<>(KafkaConfig.USER_CACHE_INVALIDATION_TOPIC, key, version);
+        record.headers().add(ORIGIN_HEADER, instanceId.getBytes(StandardCharsets.UTF_8));
+        return record;
+    }
+
+    private void send(ProducerRecord<String, String> record, String target) {
+        kafkaTemplate.send(record).whenComplete((result, ex) -> {
+            if (ex != null) {
+                // Остальные экземпляры увидят изменение по истечении TTL
+                log.warn("Failed to publish cache invalidation for {}: {}", target, ex.getMessage());
+            }
+        });
+    }
+
+    @Override
+    public void destroy() {
+        producerFactory.destroy();
+    }
+}
@@ -1,16 +1,88 @@
 package com.example.userservice.config;
 
+import com.example.userservice.mapper.UserMapper;
+import com.example.userservice.repository.UserRepository;
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.CacheLoader;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.CaffeineSpec;
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.cache.CacheManager;
-import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheManagerProxy;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
 
+import java.util.List;
+import java.util.concurrent.Executor;
+
+// Кэш снаружи bulkhead и @Transactional: попадание в кэш не занимает разрешение и не открывает транзакцию
+@Slf4j
 @Configuration
+@EnableCaching(order = Ordered.LOWEST_PRECEDENCE - 2)
+@EnableConfigurationProperties({CacheSpecProperties.class, OutboxProperties.class, BatchProperties.class,
+        SearchProperties.class, ReactiveProperties.class})
 public class AppConfig {
 
+    // Пользователь по id: обновляется write-through при записи
+    public static final String USERS_BY_ID_CACHE = "usersById";
+    // Страницы и результаты поиска: ключ содержит поколение, см. GenerationKeyGenerator
+    public static final String USER_PAGES_CACHE = "userPages";
+    public static final String USER_SEARCHES_CACHE = "userSearches";
+
+    /**
+     * Ограниченные кэши Caffeine со своей спецификацией каждый (app.cache.specs).
+     * Статистика (recordStats) публикуется Spring Boot как метрики Micrometer cache.*
+     * и дополнительно в /actuator/cachestats.
+     * Фоновые загрузки и refresh выполняются на applicationTaskExecutor, а не в ForkJoinPool.commonPool:
+     * загрузчик блокируется на БД, а при spring.threads.virtual.enabled это виртуальные потоки.
+     * Загрузчик идет мимо @Bulkhead UserService, поэтому сам занимает разрешение bulkhead "database".
+     */
     @Bean
-    public CacheManager cacheManager() {
-        return new ConcurrentMapCacheManager("users");
+    public CacheManager cacheManager(CacheSpecProperties properties,
+                                     UserRepository userRepository,
+                                     UserMapper userMapper,
+                                     @Qualifier(TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME)
+                                     Executor taskExecutor,
+                                     BulkheadRegistry bulkheadRegistry) {
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager();
+        cacheManager.setAsyncCacheMode(properties.isAsync());
+        cacheManager.setAllowNullValues(false);
+        // Неизвестные имена кэшей не создаются на лету - опечатка в @Cacheable даст ошибку, а не безлимитный кэш
+        cacheManager.setCacheNames(List.of());
+
+        // Горячие id перечитываются в фоне по refreshAfterWrite, пока запросы получают текущее значение.
+        // При занятом bulkhead refresh не выполняется и в кэше остается прежнее значение
+        Bulkhead database = bulkheadRegistry.bulkhead("database");
+        CacheLoader<Object, Object> userLoader = key -> database.executeSupplier(() -> userRepository.findById((Long) key)
+                .map(userMapper::toResponse)
+                .orElse(null));
+
+        for (String name : new String[]{USERS_BY_ID_CACHE, USER_PAGES_CACHE, USER_SEARCHES_CACHE}) {
+            Caffeine<Object, Object> builder = Caffeine.from(CaffeineSpec.parse(properties.specFor(name)))
+                    .executor(taskExecutor)
+                    .recordStats();
+            log.info("Cache {}: {}", name, properties.specFor(name));
+            // Кэши создаются заранее, поэтому Spring Boot регистрирует их метрики при старте
+            boolean loading = USERS_BY_ID_CACHE.equals(name);
+            if (properties.isAsync()) {
+                AsyncCache<Object, Object> cache = loading ? builder.buildAsync(userLoader) : builder.buildAsync();
+                cacheManager.registerCustomCache(name, cache);
+            } else {
+                Cache<Object, Object> cache = loading ? builder.build(userLoader) : builder.build();
+                cacheManager.registerCustomCache(name, cache);
+            }
+        }
+        // put/evict выполняются после коммита: откаченная запись не попадет в кэш
+        return new TransactionAwareCacheManagerProxy(cacheManager);
     }
 
-}
\ No newline at end of file
+}
@@ -0,0 +1,12 @@
+package com.example.userservice.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Data
+@ConfigurationProperties(prefix = "app.batch")
+public class BatchProperties {
+
+    // Максимум пользователей в одном запросе POST/PUT /users/batch
+    private int maxSize = 1000;
+}
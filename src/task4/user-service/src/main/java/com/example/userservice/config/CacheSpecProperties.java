@@ -0,0 +1,28 @@
+package com.example.userservice.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Настройки кэшей: app.cache.specs.&lt;имя кэша&gt; в формате CaffeineSpec.
+ * refreshAfterWrite допустим только для usersById - у остальных кэшей нет загрузчика.
+ */
+@Data
+@ConfigurationProperties(prefix = "app.cache")
+public class CacheSpecProperties {
+
+    // Для кэшей без собственной спецификации
+    private String defaultSpec = "maximumSize=500,expireAfterWrite=5m";
+
+    // Асинхронный режим Caffeine: загрузка и refresh-ahead не блокируют поток запроса
+    private boolean async = true;
+
+    private Map<String, String> specs = new LinkedHashMap<>();
+
+    public String specFor(String cacheName) {
+        return specs.getOrDefault(cacheName, defaultSpec);
+    }
+}
@@ -0,0 +1,46 @@
+package com.example.userservice.config;
+
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.cache.transaction.TransactionAwareCacheDecorator;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// Hit ratio по каждому кэшу: GET /actuator/cachestats
+@Component
+@Endpoint(id = "cachestats")
+@RequiredArgsConstructor
+public class CacheStatsEndpoint {
+
+    private final CacheManager cacheManager;
+    private final GenerationKeyGenerator generationKeyGenerator;
+
+    @ReadOperation
+    public Map<String, Object> cacheStats() {
+        Map<String, Object> result = new LinkedHashMap<>();
+        for (String name : cacheManager.getCacheNames()) {
+            Cache target = cacheManager.getCache(name);
+            if (target instanceof TransactionAwareCacheDecorator decorator) {
+                target = decorator.getTargetCache();
+            }
+            if (target instanceof CaffeineCache cache) {
+                CacheStats stats = cache.getNativeCache().stats();
+                result.put(name, Map.of(
+                        "hitCount", stats.hitCount(),
+                        "missCount", stats.missCount(),
+                        "hitRatio", stats.hitRate(),
+                        "evictionCount", stats.evictionCount(),
+                        "size", cache.getNativeCache().estimatedSize()));
+            }
+        }
+        result.put("generation", generationKeyGenerator.currentGeneration());
+        return result;
+    }
+}
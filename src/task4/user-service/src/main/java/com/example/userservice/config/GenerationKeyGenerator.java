@@ -0,0 +1,58 @@
+package com.example.userservice.config;
+
+import com.example.userservice.events.UserChangedEvent;
+import com.example.userservice.events.UsersChangedEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.interceptor.KeyGenerator;
+import org.springframework.cache.interceptor.SimpleKey;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Ключ кэша страниц и поиска: текущее поколение + имя метода + аргументы.
+ * Pageable входит в ключ целиком, поэтому сортировка тоже учитывается.
+ * Любая запись увеличивает поколение после коммита, и старые ключи больше не запрашиваются -
+ * записи вытесняются из кэша по размеру/TTL, без полного сброса.
+ */
+@Slf4j
+@Component(GenerationKeyGenerator.BEAN_NAME)
+public class GenerationKeyGenerator implements KeyGenerator {
+
+    public static final String BEAN_NAME = "generationKeyGenerator";
+
+    private final AtomicLong generation = new AtomicLong();
+
+    @Override
+    public Object generate(Object target, Method method, Object... params) {
+        Object[] parts = new Object[params.length + 2];
+        parts[0] = generation.get();
+        parts[1] = method.getName();
+        System.arraycopy(params, 0, parts, 2, params.length);
+        return new SimpleKey(parts);
+    }
+
+    public long currentGeneration() {
+        return generation.get();
+    }
+
+    // После коммита: читатель, начавший запрос со старым поколением, не закэширует устаревшие данные под новым
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserChanged(UserChangedEvent event) {
+        long next = nextGeneration();
+        log.debug("Cache generation -> {} after {} of user {}", next, event.type(), event.userId());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUsersChanged(UsersChangedEvent event) {
+        long next = nextGeneration();
+        log.debug("Cache generation -> {} after batch change of {} users", next, event.changes().size());
+    }
+
+    // Также вызывается при инвалидации с другого экземпляра сервиса
+    public long nextGeneration() {
+        return generation.incrementAndGet();
+    }
+}
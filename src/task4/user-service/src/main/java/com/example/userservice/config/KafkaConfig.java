@@ -14,6 +14,8 @@ public class KafkaConfig {
     public static final String USER_CREATED_TOPIC = "user-created";
     public static final String USER_DELETED_TOPIC = "user-deleted";
     public static final String USER_UPDATED_TOPIC = "user-updated";
+    // Инвалидация локальных кэшей между экземплярами: ключ - id пользователя, значение - версия
+    public static final String USER_CACHE_INVALIDATION_TOPIC = "user-cache-invalidation";
 
     @Bean
     public NewTopic userCreatedTopic() {
@@ -38,4 +40,14 @@ public class KafkaConfig {
                 .replicas(1)
                 .build();
     }
-}
\ No newline at end of file
+
+    // Compacted: в топике остается последняя версия по каждому id
+    @Bean
+    public NewTopic userCacheInvalidationTopic() {
+        return TopicBuilder.name(USER_CACHE_INVALIDATION_TOPIC)
+                .partitions(3)
+                .replicas(1)
+                .compact()
+                .build();
+    }
+}
@@ -0,0 +1,20 @@
+package com.example.userservice.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "app.outbox")
+public class OutboxProperties {
+
+    // Строк, блокируемых и публикуемых за одну транзакцию
+    private int batchSize = 200;
+
+    // Одновременно неподтвержденных отправок в Kafka
+    private int maxInFlight = 50;
+
+    // Срок на отправку и подтверждение всей пачки; неподтвержденные строки остаются до следующего опроса
+    private Duration sendTimeout = Duration.ofSeconds(12);
+}
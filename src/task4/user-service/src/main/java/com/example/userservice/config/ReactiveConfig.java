@@ -0,0 +1,69 @@
+package com.example.userservice.config;
+
+import com.example.userservice.reactive.ReactiveUserRepository;
+import com.zaxxer.hikari.HikariDataSource;
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.pool.ConnectionPoolConfiguration;
+import io.r2dbc.spi.ConnectionFactories;
+import io.r2dbc.spi.ConnectionFactory;
+import io.r2dbc.spi.ConnectionFactoryOptions;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.r2dbc.core.R2dbcEntityTemplate;
+import org.springframework.data.r2dbc.repository.config.EnableR2dbcRepositories;
+
+/**
+ * Пул R2DBC для реактивного чтения. Запись остается на JPA/Hikari: транзакций R2DBC нет,
+ * поэтому ReactiveTransactionManager не объявляется.
+ * DataSourceAutoConfiguration отключается при любом бине io.r2dbc.spi.ConnectionFactory, поэтому
+ * при включенном пуле R2DBC Hikari для JPA, Flyway и OutboxRelay объявляется здесь из тех же spring.datasource.*.
+ */
+@Slf4j
+@Configuration
+@ConditionalOnProperty(name = "app.reactive.enabled", havingValue = "true")
+@EnableConfigurationProperties(DataSourceProperties.class)
+@EnableR2dbcRepositories(basePackageClasses = ReactiveUserRepository.class)
+public class ReactiveConfig {
+
+    // Как DataSourceConfiguration.Hikari в Spring Boot: url/логин из spring.datasource, пул из spring.datasource.hikari
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource dataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        if (properties.getName() != null) {
+            dataSource.setPoolName(properties.getName());
+        }
+        return dataSource;
+    }
+
+    @Bean(destroyMethod = "dispose")
+    public ConnectionPool connectionFactory(ReactiveProperties properties) {
+        ConnectionFactoryOptions.Builder options = ConnectionFactoryOptions.parse(properties.getUrl()).mutate();
+        if (properties.getUsername() != null) {
+            options.option(ConnectionFactoryOptions.USER, properties.getUsername());
+        }
+        if (properties.getPassword() != null) {
+            options.option(ConnectionFactoryOptions.PASSWORD, properties.getPassword());
+        }
+        ConnectionFactory connectionFactory = ConnectionFactories.get(options.build());
+
+        log.info("R2DBC pool: url={}, size={}..{}", properties.getUrl(), properties.getInitialSize(), properties.getMaxSize());
+        return new ConnectionPool(ConnectionPoolConfiguration.builder(connectionFactory)
+                .name("UserServiceR2dbcPool")
+                .initialSize(properties.getInitialSize())
+                .maxSize(properties.getMaxSize())
+                .maxAcquireTime(properties.getMaxAcquireTime())
+                .build());
+    }
+
+    // Имя r2dbcEntityTemplate ожидает @EnableR2dbcRepositories
+    @Bean
+    public R2dbcEntityTemplate r2dbcEntityTemplate(ConnectionFactory connectionFactory) {
+        return new R2dbcEntityTemplate(connectionFactory);
+    }
+}
@@ -0,0 +1,24 @@
+package com.example.userservice.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "app.reactive")
+public class ReactiveProperties {
+
+    // Реактивный путь чтения /api/v1/reactive/users
+    private boolean enabled = false;
+
+    private String url = "r2dbc:postgresql://localhost:5432/hibernate_demo_db";
+    private String username;
+    private String password;
+
+    private int initialSize = 2;
+    // Соединения R2DBC не держат поток на время запроса, поэтому пул нужен того же порядка, что и Hikari
+    private int maxSize = 10;
+    // Ожидание свободного соединения в очереди пула, после чего запрос завершается ошибкой
+    private Duration maxAcquireTime = Duration.ofSeconds(5);
+}
@@ -0,0 +1,29 @@
+package com.example.userservice.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "app.search")
+public class SearchProperties {
+
+    // Ожидаемое число пользователей: начальная емкость массивов индекса
+    private int expectedUsers = 100_000;
+
+    // Верхняя граница проверяемых кандидатов на запрос: задержка не растет с частотой триграммы,
+    // но для очень частых запросов ранжируются только первые maxCandidates совпадений
+    private int maxCandidates = 1_000;
+
+    // Минимальная доля триграмм запроса для нечеткого совпадения
+    private double fuzzyMinSimilarity = 0.5;
+
+    // Доля удаленных документов, после которой индекс перестраивается
+    private double compactRatio = 0.3;
+
+    private int maxLimit = 50;
+
+    // Пауза перед повтором неудачной начальной загрузки; удваивается до минуты
+    private Duration buildRetryDelay = Duration.ofSeconds(1);
+}
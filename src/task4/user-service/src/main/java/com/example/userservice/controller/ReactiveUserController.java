@@ -0,0 +1,55 @@
+package com.example.userservice.controller;
+
+import com.example.userservice.dto.UserResponse;
+import com.example.userservice.reactive.ReactiveUserService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.web.PageableDefault;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Mono;
+
+// Mono из обработчика MVC выполняется асинхронно: поток Tomcat освобождается до ответа R2DBC.
+// Ответы без ссылок HATEOAS, как в lean-режиме UserController
+@RestController
+@RequestMapping("/api/v1/reactive/users")
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "app.reactive.enabled", havingValue = "true")
+@Tag(name = "Reactive User API", description = "Чтение пользователей через R2DBC")
+public class ReactiveUserController {
+
+    private final ReactiveUserService userService;
+
+    @Operation(summary = "Получить пользователя по ID")
+    @ApiResponse(responseCode = "200", description = "Пользователь найден")
+    @ApiResponse(responseCode = "404", description = "Пользователь не найден")
+    @GetMapping("/{id}")
+    public Mono<UserResponse> getUser(@PathVariable Long id) {
+        return userService.getUserById(id);
+    }
+
+    @Operation(summary = "Получить всех пользователей")
+    @ApiResponse(responseCode = "200", description = "Список пользователей получен")
+    @GetMapping
+    public Mono<Page<UserResponse>> getAllUsers(@PageableDefault(size = 20, sort = "name") Pageable pageable) {
+        return userService.getAllUsers(pageable);
+    }
+
+    @Operation(summary = "Поиск пользователей по возрастному диапазону")
+    @ApiResponse(responseCode = "200", description = "Список пользователей получен")
+    @GetMapping("/search/age")
+    public Mono<Page<UserResponse>> getUsersByAgeRange(
+            @RequestParam int minAge,
+            @RequestParam int maxAge,
+            @PageableDefault(size = 20, sort = "name") Pageable pageable) {
+        return userService.findUsersByAgeRange(minAge, maxAge, pageable);
+    }
+}
@@ -1,8 +1,13 @@
 package com.example.userservice.controller;
 
+import com.example.userservice.dto.BatchUserResult;
+import com.example.userservice.dto.CursorPage;
+import com.example.userservice.dto.UserBatchUpdateRequest;
 import com.example.userservice.dto.UserRequest;
 import com.example.userservice.dto.UserResponse;
+import com.example.userservice.service.ETagService;
 import com.example.userservice.service.HateoasService;
+import com.example.userservice.service.UserExportService;
 import com.example.userservice.service.UserService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
@@ -11,10 +16,20 @@ import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.web.PageableDefault;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.context.request.async.WebAsyncUtils;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.util.List;
+import java.util.Locale;
 
 @RestController
 @RequestMapping("/api/v1/users")
@@ -22,8 +37,15 @@ import org.springframework.web.bind.annotation.*;
 @Tag(name = "User API", description = "Управление пользователями")
 public class UserController {
 
+    // Верхняя граница size для курсорных страниц
+    private static final int MAX_CURSOR_PAGE_SIZE = 100;
+    // Короче трех символов триграммный индекс не используется
+    private static final int MIN_SEARCH_LENGTH = 3;
+
     private final UserService userService;
     private final HateoasService hateoasService;
+    private final UserExportService userExportService;
+    private final ETagService eTagService;
 
     @Operation(summary = "Создать пользователя", description = "Создание нового пользователя в системе")
     @ApiResponse(responseCode = "201", description = "Пользователь успешно создан")
@@ -36,22 +58,99 @@ public class UserController {
                 .body(hateoasService.addLinksToUser(userResponse));
     }
 
+    @Operation(summary = "Создать пользователей пакетом",
+            description = "До app.batch.max-size пользователей за запрос; результат по каждому элементу")
+    @ApiResponse(responseCode = "200", description = "Пакет обработан, статусы элементов в ответе")
+    @ApiResponse(responseCode = "413", description = "Превышен размер пакета")
+    @PostMapping("/batch")
+    public ResponseEntity<List<BatchUserResult>> createUsers(@RequestBody List<UserRequest> requests) {
+        return ResponseEntity.ok(userService.createUsers(requests));
+    }
+
+    @Operation(summary = "Обновить пользователей пакетом",
+            description = "До app.batch.max-size пользователей за запрос; результат по каждому элементу")
+    @ApiResponse(responseCode = "200", description = "Пакет обработан, статусы элементов в ответе")
+    @ApiResponse(responseCode = "413", description = "Превышен размер пакета")
+    @PutMapping("/batch")
+    public ResponseEntity<List<BatchUserResult>> updateUsers(@RequestBody List<UserBatchUpdateRequest> requests) {
+        return ResponseEntity.ok(userService.updateUsers(requests));
+    }
+
     @Operation(summary = "Получить пользователя по ID")
     @ApiResponse(responseCode = "200", description = "Пользователь найден")
+    @ApiResponse(responseCode = "304", description = "Пользователь не изменился (If-None-Match/If-Modified-Since)")
     @ApiResponse(responseCode = "404", description = "Пользователь не найден")
     @GetMapping("/{id}")
-    public ResponseEntity<UserResponse> getUser(@PathVariable Long id) {
+    public ResponseEntity<UserResponse> getUser(@PathVariable Long id, WebRequest webRequest) {
         UserResponse user = userService.getUserById(id);
+        if (eTagService.checkUserNotModified(user, webRequest)) {
+            // 304 уже выставлен, null - ответ без тела
+            return null;
+        }
         return ResponseEntity.ok(hateoasService.addLinksToUser(user));
     }
 
-    @Operation(summary = "Получить всех пользователей")
+    @Operation(summary = "Получить всех пользователей",
+            description = "lean=true или Accept: " + HateoasService.LEAN_MEDIA_TYPE + " - без ссылок у элементов")
     @ApiResponse(responseCode = "200", description = "Список пользователей получен")
     @GetMapping
     public ResponseEntity<Page<UserResponse>> getAllUsers(
-            @PageableDefault(size = 20, sort = "name") Pageable pageable) {
+            @PageableDefault(size = 20, sort = "name") Pageable pageable,
+            @RequestParam(defaultValue = "false") boolean lean,
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept,
+            WebRequest webRequest) {
+        if (eTagService.checkPageNotModified(webRequest, isLean(lean, accept))) {
+            return null;
+        }
         Page<UserResponse> users = userService.getAllUsers(pageable);
-        return ResponseEntity.ok(hateoasService.addLinksToPage(users));
+        return ResponseEntity.ok(hateoasService.addLinksToPage(users, isLean(lean, accept)));
+    }
+
+    @Operation(summary = "Получить пользователей постранично по курсору",
+            description = "Keyset-пагинация по (name, id) без подсчета общего количества; " +
+                    "nextCursor из ответа передается в параметр cursor следующего запроса")
+    @ApiResponse(responseCode = "200", description = "Страница пользователей получена")
+    @ApiResponse(responseCode = "400", description = "Некорректный курсор")
+    @GetMapping("/cursor")
+    public ResponseEntity<CursorPage<UserResponse>> getUsersByCursor(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size,
+            WebRequest webRequest) {
+        if (eTagService.checkPageNotModified(webRequest, false)) {
+            return null;
+        }
+        return ResponseEntity.ok(userService.getUsersAfter(cursor, pageSize(size)));
+    }
+
+    @Operation(summary = "Выгрузить пользователей",
+            description = "Все пользователи (или диапазон возраста) одним ответом в NDJSON или CSV, по возрастанию id; " +
+                    "строки пишутся по мере чтения из БД")
+    @ApiResponse(responseCode = "200", description = "Выгрузка идет потоком")
+    @ApiResponse(responseCode = "400", description = "minAge больше maxAge")
+    @ApiResponse(responseCode = "503", description = "Уже идет максимум одновременных выгрузок")
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportUsers(
+            @RequestParam(defaultValue = "ndjson") String format,
+            @RequestParam(defaultValue = "0") int minAge,
+            @RequestParam(defaultValue = "100") int maxAge,
+            WebRequest webRequest) {
+        UserExportService.Format exportFormat;
+        try {
+            exportFormat = UserExportService.Format.valueOf(format.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Неизвестный формат выгрузки: " + format);
+        }
+        if (minAge > maxAge) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "minAge не может быть больше maxAge");
+        }
+        // Место в bulkhead берется здесь: при отказе ответ еще не начат и клиент получает 503
+        StreamingResponseBody body = userExportService.open(exportFormat, minAge, maxAge,
+                WebAsyncUtils.getAsyncManager(webRequest));
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(exportFormat.getMediaType() + ";charset=UTF-8"))
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=\"users." + exportFormat.name().toLowerCase(Locale.ROOT) + "\"")
+                .body(body);
     }
 
     @Operation(summary = "Обновить пользователя")
@@ -75,14 +174,65 @@ public class UserController {
         return ResponseEntity.noContent().build();
     }
 
-    @Operation(summary = "Поиск пользователей по возрастному диапазону")
+    @Operation(summary = "Поиск пользователей по возрастному диапазону",
+            description = "lean=true или Accept: " + HateoasService.LEAN_MEDIA_TYPE + " - без ссылок у элементов")
     @ApiResponse(responseCode = "200", description = "Список пользователей получен")
     @GetMapping("/search/age")
     public ResponseEntity<Page<UserResponse>> getUsersByAgeRange(
             @RequestParam int minAge,
             @RequestParam int maxAge,
-            @PageableDefault(size = 20, sort = "name") Pageable pageable) {
+            @PageableDefault(size = 20, sort = "name") Pageable pageable,
+            @RequestParam(defaultValue = "false") boolean lean,
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept,
+            WebRequest webRequest) {
+        if (eTagService.checkPageNotModified(webRequest, isLean(lean, accept))) {
+            return null;
+        }
         Page<UserResponse> users = userService.findUsersByAgeRange(minAge, maxAge, pageable);
-        return ResponseEntity.ok(hateoasService.addLinksToPage(users));
+        return ResponseEntity.ok(hateoasService.addLinksToPage(users, isLean(lean, accept)));
+    }
+
+    @Operation(summary = "Поиск пользователей по подстроке имени или email",
+            description = "Результаты ранжированы по похожести; Slice без подсчета общего количества")
+    @ApiResponse(responseCode = "200", description = "Страница результатов получена")
+    @ApiResponse(responseCode = "400", description = "Запрос короче трех символов")
+    @GetMapping("/search")
+    public ResponseEntity<Slice<UserResponse>> searchUsers(
+            @RequestParam String q,
+            @PageableDefault(size = 20) Pageable pageable,
+            WebRequest webRequest) {
+        if (q.trim().length() < MIN_SEARCH_LENGTH) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "Поисковый запрос должен содержать не менее " + MIN_SEARCH_LENGTH + " символов");
+        }
+        if (eTagService.checkPageNotModified(webRequest, false)) {
+            return null;
+        }
+        return ResponseEntity.ok(userService.searchUsers(q, pageable));
+    }
+
+    @Operation(summary = "Поиск пользователей по возрастному диапазону по курсору",
+            description = "Keyset-пагинация по (age, name, id) без подсчета общего количества")
+    @ApiResponse(responseCode = "200", description = "Страница пользователей получена")
+    @ApiResponse(responseCode = "400", description = "Некорректный курсор")
+    @GetMapping("/search/age/cursor")
+    public ResponseEntity<CursorPage<UserResponse>> getUsersByAgeRangeCursor(
+            @RequestParam int minAge,
+            @RequestParam int maxAge,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size,
+            WebRequest webRequest) {
+        if (eTagService.checkPageNotModified(webRequest, false)) {
+            return null;
+        }
+        return ResponseEntity.ok(userService.findUsersByAgeRangeAfter(minAge, maxAge, cursor, pageSize(size)));
+    }
+
+    private static boolean isLean(boolean lean, String accept) {
+        return lean || (accept != null && accept.contains(HateoasService.LEAN_MEDIA_TYPE));
+    }
+
+    private static int pageSize(int size) {
+        return Math.max(1, Math.min(size, MAX_CURSOR_PAGE_SIZE));
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,37 @@
+package com.example.userservice.controller;
+
+import com.example.userservice.dto.UserSuggestion;
+import com.example.userservice.search.UserSearchService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/v1/users/search")
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "app.search.enabled", havingValue = "true", matchIfMissing = true)
+@Tag(name = "User Search API", description = "Подсказки при вводе")
+public class UserSearchController {
+
+    private final UserSearchService userSearchService;
+
+    @Operation(summary = "Подсказки по имени или email",
+            description = "Префикс, подстрока или нечеткое совпадение по индексу в памяти, без обращения к БД")
+    @ApiResponse(responseCode = "200", description = "Подсказки получены")
+    @ApiResponse(responseCode = "503", description = "Индекс еще загружается после старта")
+    @GetMapping("/suggest")
+    public ResponseEntity<List<UserSuggestion>> suggest(
+            @RequestParam String q,
+            @RequestParam(defaultValue = "10") int limit) {
+        return ResponseEntity.ok(userSearchService.suggest(q, limit));
+    }
+}
@@ -0,0 +1,47 @@
+package com.example.userservice.controller;
+
+import com.example.userservice.dto.AgeRangeStats;
+import com.example.userservice.stats.AgeHistogram;
+import com.example.userservice.stats.AgeStatisticsService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+
+@RestController
+@RequestMapping("/api/v1/users/stats")
+@RequiredArgsConstructor
+@Tag(name = "User Stats API", description = "Статистика пользователей без обращения к БД")
+public class UserStatsController {
+
+    private final AgeStatisticsService ageStatisticsService;
+
+    @Operation(summary = "Число пользователей в возрастном диапазоне",
+            description = "Отвечает из гистограммы в памяти вместо COUNT по таблице users")
+    @ApiResponse(responseCode = "200", description = "Количество получено")
+    @ApiResponse(responseCode = "400", description = "min больше max")
+    @GetMapping("/age")
+    public ResponseEntity<AgeRangeStats> countByAgeRange(
+            @RequestParam(defaultValue = "" + AgeHistogram.MIN_AGE) int min,
+            @RequestParam(defaultValue = "" + AgeHistogram.MAX_AGE) int max) {
+        if (min > max) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "min не может быть больше max");
+        }
+        return ResponseEntity.ok(ageStatisticsService.countByAgeRange(min, max));
+    }
+
+    @Operation(summary = "Распределение пользователей по возрасту",
+            description = "Элемент с индексом i - число пользователей возраста i")
+    @ApiResponse(responseCode = "200", description = "Распределение получено")
+    @GetMapping("/age/distribution")
+    public ResponseEntity<long[]> ageDistribution() {
+        return ResponseEntity.ok(ageStatisticsService.ageDistribution());
+    }
+}
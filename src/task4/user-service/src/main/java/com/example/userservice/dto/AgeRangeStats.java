@@ -0,0 +1,5 @@
+package com.example.userservice.dto;
+
+// Число пользователей в возрастном диапазоне; total - всего пользователей
+public record AgeRangeStats(int minAge, int maxAge, long count, long total) {
+}
@@ -0,0 +1,38 @@
+package com.example.userservice.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Результат одного элемента пакетного запроса; index - позиция элемента в запросе.
+ * Ошибка элемента не отменяет остальные.
+ */
+@Builder
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class BatchUserResult {
+
+    public enum Status {
+        CREATED, UPDATED, INVALID, CONFLICT, NOT_FOUND
+    }
+
+    private int index;
+    private Status status;
+    private UserResponse user;
+    private List<String> errors;
+
+    public static BatchUserResult success(int index, Status status, UserResponse user) {
+        return BatchUserResult.builder().index(index).status(status).user(user).build();
+    }
+
+    public static BatchUserResult failure(int index, Status status, List<String> errors) {
+        return BatchUserResult.builder().index(index).status(status).errors(errors).build();
+    }
+}
@@ -0,0 +1,10 @@
+package com.example.userservice.dto;
+
+import java.util.List;
+
+/**
+ * Страница keyset-пагинации: без общего количества (COUNT) и без OFFSET.
+ * nextCursor передается в следующий запрос как есть; null - страниц больше нет.
+ */
+public record CursorPage<T>(List<T> content, int size, String nextCursor, boolean hasNext) {
+}
@@ -0,0 +1,21 @@
+package com.example.userservice.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Data
+public class UserBatchUpdateRequest {
+    @NotNull(message = "ID обязателен")
+    private Long id;
+
+    @Valid
+    @NotNull(message = "Данные пользователя обязательны")
+    private UserRequest user;
+}
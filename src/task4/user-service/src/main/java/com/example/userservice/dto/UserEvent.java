@@ -1,3 +1,8 @@
 package com.example.userservice.dto;
 
-public record UserEvent( String eventType, String email, Long userId) {}
\ No newline at end of file
+import com.example.userservice.events.UserEventType;
+
+import java.time.Instant;
+
+// Событие о пользователе для Kafka; имена полей совпадают с прежним JSON-форматом строк outbox
+public record UserEvent(UserEventType eventType, Long userId, String userEmail, String userName, Instant timestamp) {}
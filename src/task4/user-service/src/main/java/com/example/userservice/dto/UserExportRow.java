@@ -0,0 +1,8 @@
+package com.example.userservice.dto;
+
+import java.time.LocalDateTime;
+
+// Строка выгрузки /users/export: проекция без сущности, persistence context не растет при потоковом чтении
+public record UserExportRow(Long id, String name, String email, Integer age,
+                            LocalDateTime createdAt, LocalDateTime updatedAt) {
+}
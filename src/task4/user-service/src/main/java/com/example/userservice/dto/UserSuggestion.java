@@ -0,0 +1,5 @@
+package com.example.userservice.dto;
+
+// Подсказка поиска при вводе; score - ранг совпадения, больше - лучше
+public record UserSuggestion(Long id, String name, String email, double score) {
+}
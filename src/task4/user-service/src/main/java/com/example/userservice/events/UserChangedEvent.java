@@ -0,0 +1,12 @@
+package com.example.userservice.events;
+
+// Внутреннее событие приложения об изменении пользователя; по нему сбрасываются кэши страниц и поиска,
+// обновляются индекс подсказок и гистограмма возрастов.
+// name/email/age - значения после изменения (для удаления не заполняются), previousAge - до него
+public record UserChangedEvent(UserEventType type, Long userId, String name, String email,
+                               Integer age, Integer previousAge) {
+
+    public UserChangedEvent(UserEventType type, Long userId) {
+        this(type, userId, null, null, null, null);
+    }
+}
@@ -0,0 +1,110 @@
+package com.example.userservice.events;
+
+import com.example.userservice.dto.UserEvent;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+
+/**
+ * Компактный бинарный формат UserEvent без рефлексии:
+ * версия (1 байт) | код типа (1) | userId (varint) | timestamp, мс (varint) | email | name,
+ * строки - (длина + 1) varint + UTF-8, 0 означает null.
+ * Версия 1 писала null как пустую строку; такие сообщения еще читаются.
+ * Код типа берется из UserEventType.getCode, а не из ordinal, чтобы порядок констант можно было менять.
+ */
+public final class UserEventCodec {
+
+    public static final byte FORMAT_VERSION = 2;
+
+    // Строки без признака null: длина 0 - пустая строка
+    static final byte LEGACY_FORMAT_VERSION = 1;
+
+    private UserEventCodec() {
+    }
+
+    public static byte[] encode(UserEvent event) {
+        byte[] email = event.userEmail() == null ? null : event.userEmail().getBytes(StandardCharsets.UTF_8);
+        byte[] name = event.userName() == null ? null : event.userName().getBytes(StandardCharsets.UTF_8);
+        // varint long - не больше 10 байт, длина строки - не больше 5
+        ByteBuffer buffer = ByteBuffer.allocate(2 + 10 + 10 + 5 + length(email) + 5 + length(name));
+        buffer.put(FORMAT_VERSION);
+        buffer.put(event.eventType().getCode());
+        writeVarLong(buffer, event.userId());
+        writeVarLong(buffer, event.timestamp().toEpochMilli());
+        writeBytes(buffer, email);
+        writeBytes(buffer, name);
+        byte[] result = new byte[buffer.position()];
+        buffer.flip().get(result);
+        return result;
+    }
+
+    public static UserEvent decode(byte[] data) {
+        ByteBuffer buffer = ByteBuffer.wrap(data);
+        try {
+            byte version = buffer.get();
+            if (version != FORMAT_VERSION && version != LEGACY_FORMAT_VERSION) {
+                throw new IllegalArgumentException("Unsupported UserEvent format version: " + version);
+            }
+            boolean nullable = version == FORMAT_VERSION;
+            UserEventType type = UserEventType.fromCode(buffer.get());
+            long userId = readVarLong(buffer);
+            Instant timestamp = Instant.ofEpochMilli(readVarLong(buffer));
+            String email = readString(buffer, nullable);
+            String name = readString(buffer, nullable);
+            return new UserEvent(type, userId, email, name, timestamp);
+        } catch (BufferUnderflowException e) {
+            throw new IllegalArgumentException("Truncated UserEvent payload", e);
+        }
+    }
+
+    private static int length(byte[] bytes) {
+        return bytes == null ? 0 : bytes.length;
+    }
+
+    private static void writeBytes(ByteBuffer buffer, byte[] bytes) {
+        if (bytes == null) {
+            writeVarLong(buffer, 0);
+            return;
+        }
+        writeVarLong(buffer, bytes.length + 1L);
+        buffer.put(bytes);
+    }
+
+    private static String readString(ByteBuffer buffer, boolean nullable) {
+        long encoded = readVarLong(buffer);
+        if (nullable && encoded == 0) {
+            return null;
+        }
+        // varint длиннее 63 бит читается как отрицательное число
+        long length = nullable ? encoded - 1 : encoded;
+        if (length < 0 || length > buffer.remaining()) {
+            throw new IllegalArgumentException("Invalid string length in UserEvent payload: " + length);
+        }
+        String value = new String(buffer.array(), buffer.position(), (int) length, StandardCharsets.UTF_8);
+        buffer.position(buffer.position() + (int) length);
+        return value;
+    }
+
+    // Беззнаковый LEB128: id и время всегда неотрицательны
+    static void writeVarLong(ByteBuffer buffer, long value) {
+        while ((value & ~0x7FL) != 0) {
+            buffer.put((byte) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        buffer.put((byte) value);
+    }
+
+    static long readVarLong(ByteBuffer buffer) {
+        long result = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            byte b = buffer.get();
+            result |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return result;
+            }
+        }
+        throw new IllegalArgumentException("Malformed varint in UserEvent payload");
+    }
+}
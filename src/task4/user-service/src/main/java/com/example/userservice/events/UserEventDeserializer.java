@@ -0,0 +1,21 @@
+package com.example.userservice.events;
+
+import com.example.userservice.dto.UserEvent;
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.serialization.Deserializer;
+
+// Для потребителей топиков user-* (value-deserializer)
+public class UserEventDeserializer implements Deserializer<UserEvent> {
+
+    @Override
+    public UserEvent deserialize(String topic, byte[] data) {
+        if (data == null) {
+            return null;
+        }
+        try {
+            return UserEventCodec.decode(data);
+        } catch (IllegalArgumentException e) {
+            throw new SerializationException("Cannot decode UserEvent from topic " + topic, e);
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package com.example.userservice.events;
+
+import com.example.userservice.dto.UserEvent;
+import org.apache.kafka.common.serialization.Serializer;
+
+// value-serializer продюсера событий (spring.kafka.producer.value-serializer)
+public class UserEventSerializer implements Serializer<UserEvent> {
+
+    @Override
+    public byte[] serialize(String topic, UserEvent event) {
+        return event == null ? null : UserEventCodec.encode(event);
+    }
+}
@@ -1,17 +1,47 @@
 package com.example.userservice.events;
 
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonValue;
+
+import java.util.Arrays;
+
 public enum UserEventType {
-    USER_CREATED("user.created"),
-    USER_DELETED("user.deleted"),
-    USER_UPDATED("user.updated"); // На будущее
+    // code - стабильный идентификатор в бинарном формате UserEventCodec, не менять у существующих значений
+    USER_CREATED("user.created", 1),
+    USER_DELETED("user.deleted", 2),
+    USER_UPDATED("user.updated", 3);
 
     private final String eventType;
+    private final byte code;
 
-    UserEventType(String eventType) {
+    UserEventType(String eventType, int code) {
         this.eventType = eventType;
+        this.code = (byte) code;
     }
 
+    @JsonValue
     public String getEventType() {
         return eventType;
     }
-}
\ No newline at end of file
+
+    public byte getCode() {
+        return code;
+    }
+
+    @JsonCreator
+    public static UserEventType fromEventType(String eventType) {
+        return Arrays.stream(values())
+                .filter(type -> type.eventType.equals(eventType))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("Unknown event type: " + eventType));
+    }
+
+    public static UserEventType fromCode(byte code) {
+        for (UserEventType type : values()) {
+            if (type.code == code) {
+                return type;
+            }
+        }
+        throw new IllegalArgumentException("Unknown event type code: " + code);
+    }
+}
@@ -0,0 +1,12 @@
+package com.example.userservice.events;
+
+import java.util.List;
+
+// Пакетное изменение через /users/batch: одно событие на пакет вместо UserChangedEvent на каждого пользователя,
+// чтобы поколение кэша страниц и инвалидация для других экземпляров менялись один раз
+public record UsersChangedEvent(List<UserChangedEvent> changes) {
+
+    public List<Long> userIds() {
+        return changes.stream().map(UserChangedEvent::userId).toList();
+    }
+}
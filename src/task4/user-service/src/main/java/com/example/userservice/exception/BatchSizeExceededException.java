@@ -0,0 +1,7 @@
+package com.example.userservice.exception;
+
+public class BatchSizeExceededException extends RuntimeException {
+    public BatchSizeExceededException(int size, int maxSize) {
+        super("Размер пакета " + size + " превышает допустимый " + maxSize);
+    }
+}
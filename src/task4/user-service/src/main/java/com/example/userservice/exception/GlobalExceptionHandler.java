@@ -1,5 +1,6 @@
 package com.example.userservice.exception;
 
+import io.github.resilience4j.bulkhead.BulkheadFullException;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.*;
 import org.springframework.web.bind.MethodArgumentNotValidException;
@@ -52,4 +53,37 @@ public class GlobalExceptionHandler extends ResponseEntityExceptionHandler {
                 ex.getMessage()
         );
     }
-}
\ No newline at end of file
+
+    @ExceptionHandler(BatchSizeExceededException.class)
+    public ProblemDetail handleBatchSizeExceeded(BatchSizeExceededException ex) {
+        return ProblemDetail.forStatusAndDetail(
+                HttpStatus.PAYLOAD_TOO_LARGE,
+                ex.getMessage()
+        );
+    }
+
+    // Все разрешения bulkhead заняты дольше maxWaitDuration: клиенту стоит повторить позже
+    @ExceptionHandler(BulkheadFullException.class)
+    public ResponseEntity<ProblemDetail> handleBulkheadFull(BulkheadFullException ex) {
+        log.warn("Rejected by bulkhead: {}", ex.getMessage());
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(ProblemDetail.forStatusAndDetail(HttpStatus.SERVICE_UNAVAILABLE, "Service is overloaded, retry later"));
+    }
+
+    // Неполный индекс дал бы неполные подсказки без признака ошибки
+    @ExceptionHandler(SearchIndexNotReadyException.class)
+    public ResponseEntity<ProblemDetail> handleSearchIndexNotReady(SearchIndexNotReadyException ex) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "5")
+                .body(ProblemDetail.forStatusAndDetail(HttpStatus.SERVICE_UNAVAILABLE, ex.getMessage()));
+    }
+
+    @ExceptionHandler(InvalidCursorException.class)
+    public ProblemDetail handleInvalidCursor(InvalidCursorException ex) {
+        return ProblemDetail.forStatusAndDetail(
+                HttpStatus.BAD_REQUEST,
+                ex.getMessage()
+        );
+    }
+}
@@ -0,0 +1,7 @@
+package com.example.userservice.exception;
+
+public class InvalidCursorException extends RuntimeException {
+    public InvalidCursorException(String cursor) {
+        super("Некорректный курсор страницы: " + cursor);
+    }
+}
@@ -0,0 +1,7 @@
+package com.example.userservice.exception;
+
+public class SearchIndexNotReadyException extends RuntimeException {
+    public SearchIndexNotReadyException() {
+        super("Индекс подсказок еще загружается");
+    }
+}
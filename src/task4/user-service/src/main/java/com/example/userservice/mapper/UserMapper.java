@@ -3,6 +3,7 @@ package com.example.userservice.mapper;
 import com.example.userservice.dto.UserRequest;
 import com.example.userservice.dto.UserResponse;
 import com.example.userservice.model.User;
+import com.example.userservice.reactive.UserRow;
 import org.mapstruct.*;
 import org.springframework.stereotype.Component;
 
@@ -19,6 +20,8 @@ public interface UserMapper {
     @Mapping(source = "updatedAt", target = "updatedAt")
     UserResponse toResponse(User user);
 
+    UserResponse toResponse(UserRow row);
+
     @BeanMapping(nullValuePropertyMappingStrategy = NullValuePropertyMappingStrategy.IGNORE)
     void updateFromRequest(UserRequest request, @MappingTarget User user);
 }
\ No newline at end of file
@@ -6,14 +6,21 @@ import lombok.*;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "users", indexes = @Index(columnList = "email"))
+@Table(name = "users", indexes = {
+        @Index(columnList = "email"),
+        // Keyset-пагинация по (name, id) и по (age, name, id) для поиска по возрасту, см. V4
+        @Index(name = "idx_users_name_id", columnList = "name, id"),
+        @Index(name = "idx_users_age_name_id", columnList = "age, name, id")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
 public class User {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    // Последовательность с шагом 50 вместо IDENTITY: id выдаются без обращения к БД, INSERT-ы батчатся (V3)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "users_id_seq")
+    @SequenceGenerator(name = "users_id_seq", sequenceName = "users_id_seq", allocationSize = 50)
     private Long id;
 
     @NotBlank
@@ -0,0 +1,15 @@
+package com.example.userservice.reactive;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.r2dbc.repository.R2dbcRepository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+public interface ReactiveUserRepository extends R2dbcRepository<UserRow, Long> {
+
+    Flux<UserRow> findAllBy(Pageable pageable);
+
+    Flux<UserRow> findByAgeBetween(int minAge, int maxAge, Pageable pageable);
+
+    Mono<Long> countByAgeBetween(int minAge, int maxAge);
+}
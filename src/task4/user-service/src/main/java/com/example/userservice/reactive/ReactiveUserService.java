@@ -0,0 +1,47 @@
+package com.example.userservice.reactive;
+
+import com.example.userservice.dto.UserResponse;
+import com.example.userservice.exception.UserNotFoundException;
+import com.example.userservice.mapper.UserMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Чтение пользователей через R2DBC: поток не занимается на время ожидания БД.
+ * Кэши usersById/userPages здесь не используются - они заполняются синхронным путем UserService.
+ */
+@Service
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "app.reactive.enabled", havingValue = "true")
+public class ReactiveUserService {
+
+    private final ReactiveUserRepository userRepository;
+    private final UserMapper userMapper;
+
+    public Mono<UserResponse> getUserById(Long id) {
+        return userRepository.findById(id)
+                .map(userMapper::toResponse)
+                .switchIfEmpty(Mono.error(() -> new UserNotFoundException(id)));
+    }
+
+    public Mono<Page<UserResponse>> getAllUsers(Pageable pageable) {
+        return toPage(userRepository.findAllBy(pageable), userRepository.count(), pageable);
+    }
+
+    public Mono<Page<UserResponse>> findUsersByAgeRange(int minAge, int maxAge, Pageable pageable) {
+        return toPage(userRepository.findByAgeBetween(minAge, maxAge, pageable),
+                userRepository.countByAgeBetween(minAge, maxAge), pageable);
+    }
+
+    // Страница и COUNT выполняются параллельно на разных соединениях пула
+    private Mono<Page<UserResponse>> toPage(Flux<UserRow> rows, Mono<Long> total, Pageable pageable) {
+        return Mono.zip(rows.map(userMapper::toResponse).collectList(), total)
+                .map(result -> new PageImpl<>(result.getT1(), pageable, result.getT2()));
+    }
+}
@@ -0,0 +1,18 @@
+package com.example.userservice.reactive;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.relational.core.mapping.Column;
+import org.springframework.data.relational.core.mapping.Table;
+
+import java.time.LocalDateTime;
+
+// Строка таблицы users для R2DBC; сущность JPA User здесь не подходит - у R2DBC свой маппинг
+@Table("users")
+public record UserRow(
+        @Id Long id,
+        String name,
+        String email,
+        Integer age,
+        @Column("created_at") LocalDateTime createdAt,
+        @Column("updated_at") LocalDateTime updatedAt) {
+}
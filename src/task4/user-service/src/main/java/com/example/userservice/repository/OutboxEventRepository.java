@@ -0,0 +1,43 @@
+package com.example.userservice.repository;
+
+import com.example.userservice.model.OutboxEvent;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+
+    /**
+     * Следующая пачка событий целыми пользователями, в три шага без ожидания чужих блокировок:
+     * candidates - первые по порядку пользователи без блокировок строк; acquired - те из них, чью
+     * advisory-блокировку (до конца транзакции) удалось взять, остальных держит другой экземпляр;
+     * FOR UPDATE - только строки взятых пользователей, на них другой экземпляр уже не претендует.
+     * CTE с pg_try_advisory_xact_lock материализуется и вычисляется один раз.
+     * Хвост пользователя, не вошедший в limit, остается в таблице и будет первым в следующей пачке.
+     * 7301 - пространство ключей outbox, чтобы не пересекаться с другими advisory-блокировками (Flyway).
+     */
+    @Query(value = """
+            WITH candidates AS (
+                SELECT aggregate_id FROM outbox_events
+                GROUP BY aggregate_id
+                ORDER BY min(id)
+                LIMIT :limit
+            ), acquired AS (
+                SELECT aggregate_id FROM candidates
+                WHERE pg_try_advisory_xact_lock(7301, CAST(aggregate_id % 2147483647 AS integer))
+            )
+            SELECT e.* FROM outbox_events e
+            WHERE e.aggregate_id IN (SELECT aggregate_id FROM acquired)
+            ORDER BY e.id
+            LIMIT :limit
+            FOR UPDATE""", nativeQuery = true)
+    List<OutboxEvent> lockNextBatch(@Param("limit") int limit);
+
+    @Modifying
+    @Query("UPDATE OutboxEvent e SET e.attempts = e.attempts + 1 WHERE e.id IN :ids")
+    int incrementAttempts(@Param("ids") Collection<Long> ids);
+}
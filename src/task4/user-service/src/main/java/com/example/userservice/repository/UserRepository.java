@@ -1,14 +1,23 @@
 package com.example.userservice.repository;
 
+import com.example.userservice.dto.UserExportRow;
 import com.example.userservice.model.User;
+import com.example.userservice.search.IndexedUser;
+import com.example.userservice.stats.AgeCount;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 
 import org.springframework.data.domain.Pageable;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface UserRepository extends JpaRepository<User, Long> {
 
@@ -16,8 +25,57 @@ public interface UserRepository extends JpaRepository<User, Long> {
 
     Optional<User> findByEmail(String email);
 
+    // Проверка уникальности для пакета одним запросом вместо existsByEmail на каждый элемент
+    @Query("SELECT u.email FROM User u WHERE u.email IN :emails")
+    List<String> findExistingEmails(@Param("emails") Collection<String> emails);
+
     Page<User> findByAgeBetween(int minAge, int maxAge, Pageable pageable);
 
-    @Query("SELECT u FROM User u WHERE LOWER(u.name) LIKE LOWER(CONCAT('%', :name, '%'))")
-    List<User> searchByName(@Param("name") String name);
-}
\ No newline at end of file
+    // Keyset-пагинация: первая страница и продолжение после (name, id) последней строки
+    @Query("SELECT u FROM User u ORDER BY u.name, u.id")
+    List<User> findFirstByNameOrder(Limit limit);
+
+    @Query("SELECT u FROM User u WHERE (u.name, u.id) > (:name, :id) ORDER BY u.name, u.id")
+    List<User> findAfterByNameOrder(@Param("name") String name, @Param("id") Long id, Limit limit);
+
+    // По возрасту порядок (age, name, id) совпадает с индексом idx_users_age_name_id: диапазон age читается
+    // по индексу и останавливается на limit; при ORDER BY name, id пришлось бы сортировать все совпадения
+    @Query("SELECT u FROM User u WHERE u.age BETWEEN :minAge AND :maxAge ORDER BY u.age, u.name, u.id")
+    List<User> findFirstByAgeBetween(@Param("minAge") int minAge, @Param("maxAge") int maxAge, Limit limit);
+
+    @Query("SELECT u FROM User u WHERE u.age BETWEEN :minAge AND :maxAge " +
+            "AND (u.age, u.name, u.id) > (:age, :name, :id) ORDER BY u.age, u.name, u.id")
+    List<User> findAfterByAgeBetween(@Param("minAge") int minAge, @Param("maxAge") int maxAge,
+                                     @Param("age") int age, @Param("name") String name, @Param("id") Long id,
+                                     Limit limit);
+
+    /**
+     * Поиск подстроки в имени или email по триграммным индексам (V6); pattern - уже экранированный
+     * '%...%' в нижнем регистре. Ранжирование по similarity, без COUNT: вызывающий запрашивает limit + 1.
+     */
+    @Query(value = """
+            SELECT * FROM users
+            WHERE lower(name) LIKE :pattern OR lower(email) LIKE :pattern
+            ORDER BY greatest(similarity(lower(name), :query), similarity(lower(email), :query)) DESC, name, id
+            LIMIT :limit OFFSET :offset
+            """, nativeQuery = true)
+    List<User> search(@Param("pattern") String pattern, @Param("query") String query,
+                      @Param("limit") int limit, @Param("offset") long offset);
+
+    // Потоковое чтение для индекса подсказок; вызывать внутри транзакции и закрывать поток
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "5000"))
+    @Query("SELECT new com.example.userservice.search.IndexedUser(u.id, u.name, u.email) FROM User u")
+    Stream<IndexedUser> streamAllForIndex();
+
+    // Выгрузка /users/export: курсор на сервере (fetch size внутри транзакции), порядок по первичному ключу
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("""
+            SELECT new com.example.userservice.dto.UserExportRow(u.id, u.name, u.email, u.age, u.createdAt, u.updatedAt)
+            FROM User u WHERE u.age BETWEEN :minAge AND :maxAge ORDER BY u.id
+            """)
+    Stream<UserExportRow> streamForExport(@Param("minAge") int minAge, @Param("maxAge") int maxAge);
+
+    // Начальное заполнение гистограммы возрастов
+    @Query("SELECT new com.example.userservice.stats.AgeCount(u.age, COUNT(u)) FROM User u GROUP BY u.age")
+    List<AgeCount> countByAge();
+}
@@ -0,0 +1,5 @@
+package com.example.userservice.search;
+
+// Проекция для начальной загрузки индекса: только индексируемые поля, без управляемых сущностей
+public record IndexedUser(Long id, String name, String email) {
+}
@@ -0,0 +1,138 @@
+package com.example.userservice.search;
+
+import java.util.Arrays;
+
+/**
+ * Список документов одной n-граммы: возрастающие docId, сжатые как varint-разности.
+ * Только дописывание в конец - индекс выдает docId монотонно, удаление через отметку в UserSearchIndex.
+ * Для частой n-граммы разность обычно укладывается в 1 байт вместо 4 в int[].
+ * <p>
+ * Каждые SKIP_INTERVAL записей запоминается точка входа (предыдущий docId, смещение в байтах):
+ * при пересечении с коротким списком курсор перепрыгивает длинный список, а не декодирует его целиком.
+ */
+final class PostingList {
+
+    private static final int INITIAL_CAPACITY = 8;
+    private static final int SKIP_INTERVAL = 64;
+
+    private byte[] bytes = new byte[INITIAL_CAPACITY];
+    private int length;
+    private int size;
+    private int last = -1;
+
+    private int[] skipDocs = new int[0];
+    private int[] skipOffsets = new int[0];
+    private int skipCount;
+
+    void append(int docId) {
+        if (docId <= last) {
+            throw new IllegalArgumentException("docId " + docId + " is not greater than " + last);
+        }
+        if (size % SKIP_INTERVAL == 0) {
+            addSkip();
+        }
+        int delta = docId - last;
+        if (length + 5 > bytes.length) {
+            bytes = Arrays.copyOf(bytes, Math.max(bytes.length * 2, length + 5));
+        }
+        while ((delta & ~0x7F) != 0) {
+            bytes[length++] = (byte) ((delta & 0x7F) | 0x80);
+            delta >>>= 7;
+        }
+        bytes[length++] = (byte) delta;
+        last = docId;
+        size++;
+    }
+
+    int size() {
+        return size;
+    }
+
+    // Занятая память без заголовков объектов - для статистики индекса
+    int byteSize() {
+        return bytes.length + (skipDocs.length + skipOffsets.length) * Integer.BYTES;
+    }
+
+    void trim() {
+        if (bytes.length > length) {
+            bytes = Arrays.copyOf(bytes, length);
+        }
+        if (skipDocs.length > skipCount) {
+            skipDocs = Arrays.copyOf(skipDocs, skipCount);
+            skipOffsets = Arrays.copyOf(skipOffsets, skipCount);
+        }
+    }
+
+    Cursor cursor() {
+        return new Cursor();
+    }
+
+    private void addSkip() {
+        if (skipCount == skipDocs.length) {
+            int capacity = Math.max(4, skipCount * 2);
+            skipDocs = Arrays.copyOf(skipDocs, capacity);
+            skipOffsets = Arrays.copyOf(skipOffsets, capacity);
+        }
+        skipDocs[skipCount] = last;
+        skipOffsets[skipCount] = length;
+        skipCount++;
+    }
+
+    /**
+     * Последовательное чтение. Вызывающий держит блокировку чтения индекса - список не меняется под курсором.
+     */
+    final class Cursor {
+        private int position;
+        private int current = -1;
+
+        // Следующий docId или -1, если список кончился
+        int next() {
+            if (position >= length) {
+                return -1;
+            }
+            int delta = 0;
+            int shift = 0;
+            byte b;
+            do {
+                b = bytes[position++];
+                delta |= (b & 0x7F) << shift;
+                shift += 7;
+            } while (b < 0);
+            current += delta;
+            return current;
+        }
+
+        // Первый docId >= target или -1
+        int advance(int target) {
+            if (current >= target) {
+                return current;
+            }
+            skipTo(target);
+            int docId;
+            do {
+                docId = next();
+            } while (docId != -1 && docId < target);
+            return docId;
+        }
+
+        // Последняя точка входа, после которой еще могут быть docId >= target
+        private void skipTo(int target) {
+            int low = 0;
+            int high = skipCount - 1;
+            int found = -1;
+            while (low <= high) {
+                int mid = (low + high) >>> 1;
+                if (skipDocs[mid] < target) {
+                    found = mid;
+                    low = mid + 1;
+                } else {
+                    high = mid - 1;
+                }
+            }
+            if (found >= 0 && skipOffsets[found] > position) {
+                position = skipOffsets[found];
+                current = skipDocs[found];
+            }
+        }
+    }
+}
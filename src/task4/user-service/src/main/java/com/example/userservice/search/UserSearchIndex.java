@@ -0,0 +1,523 @@
+package com.example.userservice.search;
+
+import com.example.userservice.dto.UserSuggestion;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Инвертированный индекс триграмм по имени и email пользователей для подсказок при вводе.
+ * <p>
+ * Каждое поле в нижнем регистре дополняется слева двумя служебными символами, поэтому в индексе есть
+ * и обычные триграммы (поиск подстроки от трех символов), и префиксные (запросы из одного-двух символов).
+ * Документы получают docId по возрастанию, списки документов только дописываются (см. {@link PostingList});
+ * изменение пользователя - новый документ и отметка старого удаленным. Когда удаленных становится
+ * больше compactRatio, индекс перестраивается из живых документов вне блокировки записи (см. compactIfNeeded).
+ * <p>
+ * Кандидаты из пересечения списков проверяются по исходному тексту, так что совпадения триграмм
+ * не в той позиции ответ не портят. Если точных совпадений меньше limit, добавляются нечеткие -
+ * по доле триграмм запроса, найденных в имени или email (как word_similarity() в pg_trgm).
+ */
+public final class UserSearchIndex {
+
+    private static final char PAD = '\u0002';
+    private static final char FIELD_SEPARATOR = '\u0000';
+
+    // Ранги совпадений: префикс имени выше префикса email, затем начало слова и любая подстрока
+    private static final double NAME_PREFIX = 4;
+    private static final double EMAIL_PREFIX = 3;
+    private static final double WORD_PREFIX = 2;
+    private static final double SUBSTRING = 1;
+
+    private final int maxCandidates;
+    private final double fuzzyMinSimilarity;
+    private final double compactRatio;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    // Перестроение идет в одном потоке, остальные писатели его не ждут
+    private final AtomicBoolean compacting = new AtomicBoolean();
+
+    private Map<Long, PostingList> postings;
+    private LongIntHashMap docByUser;
+    private long[] userIds;
+    private String[] texts;
+    private BitSet deleted;
+    private int nextDoc;
+    private int deletedCount;
+
+    public UserSearchIndex(int expectedUsers, int maxCandidates, double fuzzyMinSimilarity, double compactRatio) {
+        this.maxCandidates = maxCandidates;
+        this.fuzzyMinSimilarity = fuzzyMinSimilarity;
+        this.compactRatio = compactRatio;
+        reset(expectedUsers);
+    }
+
+    /**
+     * Добавляет или заменяет пользователя. Вызов с теми же name/email ничего не меняет.
+     */
+    public void upsert(long userId, String name, String email) {
+        String text = name + FIELD_SEPARATOR + email;
+        boolean compact;
+        lock.writeLock().lock();
+        try {
+            int existing = docByUser.get(userId);
+            if (existing != LongIntHashMap.MISSING) {
+                if (texts[existing].equals(text)) {
+                    return;
+                }
+                markDeleted(existing);
+            }
+            docByUser.put(userId, addDocument(userId, text));
+            compact = needsCompaction();
+        } finally {
+            lock.writeLock().unlock();
+        }
+        if (compact) {
+            compactIfNeeded();
+        }
+    }
+
+    /**
+     * Добавляет пользователя, только если его еще нет: начальная загрузка не должна затирать
+     * изменения, пришедшие событиями во время сканирования таблицы.
+     */
+    public boolean putIfAbsent(long userId, String name, String email) {
+        lock.writeLock().lock();
+        try {
+            if (docByUser.get(userId) != LongIntHashMap.MISSING) {
+                return false;
+            }
+            docByUser.put(userId, addDocument(userId, name + FIELD_SEPARATOR + email));
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(long userId) {
+        boolean compact;
+        lock.writeLock().lock();
+        try {
+            int docId = docByUser.remove(userId);
+            if (docId == LongIntHashMap.MISSING) {
+                return;
+            }
+            markDeleted(docId);
+            compact = needsCompaction();
+        } finally {
+            lock.writeLock().unlock();
+        }
+        if (compact) {
+            compactIfNeeded();
+        }
+    }
+
+    public List<UserSuggestion> suggest(String query, int limit) {
+        String q = normalize(query);
+        if (q.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+        lock.readLock().lock();
+        try {
+            PriorityQueue<Match> top = new PriorityQueue<>(limit + 1, Match.ORDER);
+            Set<Integer> seen = new HashSet<>();
+            collectExact(q, limit, top, seen);
+            if (top.size() < limit && q.length() >= 3) {
+                collectFuzzy(q, limit, top, seen);
+            }
+
+            List<Match> matches = new ArrayList<>(top);
+            matches.sort(Match.ORDER.reversed());
+            List<UserSuggestion> result = new ArrayList<>(matches.size());
+            for (Match match : matches) {
+                String text = texts[match.docId];
+                int separator = text.indexOf(FIELD_SEPARATOR);
+                result.add(new UserSuggestion(userIds[match.docId],
+                        text.substring(0, separator), text.substring(separator + 1), match.score));
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public Stats stats() {
+        lock.readLock().lock();
+        try {
+            long postingBytes = 0;
+            for (PostingList list : postings.values()) {
+                postingBytes += list.byteSize();
+            }
+            long textBytes = 0;
+            for (int docId = 0; docId < nextDoc; docId++) {
+                // Latin-1 строки хранятся по байту на символ, плюс заголовки String и byte[]
+                if (texts[docId] != null) {
+                    textBytes += texts[docId].length() + 40;
+                }
+            }
+            return new Stats(nextDoc - deletedCount, deletedCount, postings.size(), postingBytes,
+                    textBytes + (long) userIds.length * Long.BYTES + docByUser.byteSize());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // id всех проиндексированных пользователей, для сверки с БД
+    public long[] userIds() {
+        lock.readLock().lock();
+        try {
+            long[] result = new long[nextDoc - deletedCount];
+            int count = 0;
+            for (int docId = deleted.nextClearBit(0); docId < nextDoc; docId = deleted.nextClearBit(docId + 1)) {
+                result[count++] = userIds[docId];
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * documentBytes - тексты, id и userId -> docId; postingBytes - сжатые списки без заголовков объектов.
+     */
+    public record Stats(int documents, int deletedDocuments, int grams, long postingBytes, long documentBytes) {
+    }
+
+    // Освобождает запас емкости списков после начальной загрузки
+    public void trim() {
+        lock.writeLock().lock();
+        try {
+            postings.values().forEach(PostingList::trim);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void collectExact(String q, int limit, PriorityQueue<Match> top, Set<Integer> seen) {
+        long[] grams = q.length() < 3 ? new long[]{prefixGram(q)} : substringGrams(q);
+        List<PostingList> lists = new ArrayList<>(grams.length);
+        for (long gram : grams) {
+            PostingList list = postings.get(gram);
+            if (list == null) {
+                return;
+            }
+            lists.add(list);
+        }
+        // Ведущий - самый короткий список, остальные догоняют его курсорами
+        lists.sort(Comparator.comparingInt(PostingList::size));
+        PostingList.Cursor[] cursors = new PostingList.Cursor[lists.size()];
+        for (int i = 0; i < cursors.length; i++) {
+            cursors[i] = lists.get(i).cursor();
+        }
+
+        int candidates = 0;
+        int docId = cursors[0].next();
+        while (docId != -1 && candidates < maxCandidates) {
+            int max = docId;
+            boolean all = true;
+            for (int i = 1; i < cursors.length; i++) {
+                int other = cursors[i].advance(docId);
+                if (other == -1) {
+                    return;
+                }
+                if (other != docId) {
+                    max = Math.max(max, other);
+                    all = false;
+                }
+            }
+            if (all) {
+                candidates++;
+                if (!deleted.get(docId)) {
+                    double score = exactScore(texts[docId], q);
+                    if (score > 0) {
+                        seen.add(docId);
+                        offer(top, limit, new Match(docId, score, texts[docId].indexOf(FIELD_SEPARATOR)));
+                        // limit совпадений с префиксом имени - лучше не будет, дальше можно не читать
+                        if (top.size() == limit && top.peek().score() >= NAME_PREFIX) {
+                            return;
+                        }
+                    }
+                }
+                docId = cursors[0].next();
+            } else {
+                docId = cursors[0].advance(max);
+            }
+        }
+    }
+
+    /**
+     * Документ с долей триграмм запроса не меньше fuzzyMinSimilarity обязан встретиться хотя бы в одном
+     * из (n - k + 1) самых коротких списков, где k - минимально нужное число общих триграмм.
+     * Кандидаты берутся только из них, без обхода частых триграмм.
+     */
+    private void collectFuzzy(String q, int limit, PriorityQueue<Match> top, Set<Integer> seen) {
+        long[] grams = substringGrams(q);
+        int required = Math.max(1, (int) Math.ceil(grams.length * fuzzyMinSimilarity));
+        List<PostingList> lists = new ArrayList<>(grams.length);
+        for (long gram : grams) {
+            PostingList list = postings.get(gram);
+            if (list != null) {
+                lists.add(list);
+            }
+        }
+        if (lists.size() < required) {
+            return;
+        }
+        lists.sort(Comparator.comparingInt(PostingList::size));
+
+        int scanned = lists.size() - required + 1;
+        // Бюджет делится между списками: иначе первый из них может исчерпать его одними слабыми кандидатами
+        int perList = Math.max(1, maxCandidates / scanned);
+        for (int i = 0; i < scanned; i++) {
+            PostingList.Cursor cursor = lists.get(i).cursor();
+            int candidates = 0;
+            for (int docId = cursor.next(); docId != -1 && candidates < perList; docId = cursor.next()) {
+                if (deleted.get(docId) || !seen.add(docId)) {
+                    continue;
+                }
+                candidates++;
+                double similarity = similarity(texts[docId], grams);
+                if (similarity >= fuzzyMinSimilarity) {
+                    // Нечеткое совпадение всегда ниже любого точного
+                    offer(top, limit,
+                            new Match(docId, similarity * SUBSTRING, texts[docId].indexOf(FIELD_SEPARATOR)));
+                }
+            }
+        }
+    }
+
+    private static void offer(PriorityQueue<Match> top, int limit, Match match) {
+        top.offer(match);
+        if (top.size() > limit) {
+            top.poll();
+        }
+    }
+
+    private static double exactScore(String text, String q) {
+        int separator = text.indexOf(FIELD_SEPARATOR);
+        if (text.regionMatches(true, 0, q, 0, q.length())) {
+            return NAME_PREFIX;
+        }
+        if (text.regionMatches(true, separator + 1, q, 0, q.length())) {
+            return EMAIL_PREFIX;
+        }
+        if (q.length() < 3) {
+            // Для одного-двух символов ищутся только префиксы полей
+            return 0;
+        }
+        double best = 0;
+        int last = text.length() - q.length();
+        // Служебный разделитель не входит в запрос, поэтому совпадение через границу полей невозможно
+        for (int i = 1; i <= last; i++) {
+            if (!text.regionMatches(true, i, q, 0, q.length())) {
+                continue;
+            }
+            if (!Character.isLetterOrDigit(text.charAt(i - 1))) {
+                return WORD_PREFIX;
+            }
+            best = SUBSTRING;
+        }
+        return best;
+    }
+
+    // Доля триграмм запроса, найденных в имени или email (как word_similarity, а не similarity всей строки)
+    private static double similarity(String text, long[] queryGrams) {
+        int shared = 0;
+        for (long gram : queryGrams) {
+            if (containsGram(text, (char) (gram >>> 32), (char) (gram >>> 16), (char) gram)) {
+                shared++;
+            }
+        }
+        return (double) shared / queryGrams.length;
+    }
+
+    // Без выделения памяти: проверка кандидата не должна порождать мусор на каждом запросе
+    private static boolean containsGram(String text, char a, char b, char c) {
+        for (int i = 0; i + 2 < text.length(); i++) {
+            if (Character.toLowerCase(text.charAt(i)) == a
+                    && Character.toLowerCase(text.charAt(i + 1)) == b
+                    && Character.toLowerCase(text.charAt(i + 2)) == c) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private int addDocument(long userId, String text) {
+        if (nextDoc == userIds.length) {
+            int capacity = Math.max(16, userIds.length + (userIds.length >> 1));
+            userIds = Arrays.copyOf(userIds, capacity);
+            texts = Arrays.copyOf(texts, capacity);
+        }
+        int docId = nextDoc++;
+        userIds[docId] = userId;
+        texts[docId] = text;
+        for (long gram : documentGrams(text)) {
+            postings.computeIfAbsent(gram, g -> new PostingList()).append(docId);
+        }
+        return docId;
+    }
+
+    private void markDeleted(int docId) {
+        deleted.set(docId);
+        // Текст больше не нужен: удаленный документ не проверяется и не переносится при перестроении
+        texts[docId] = null;
+        deletedCount++;
+    }
+
+    private boolean needsCompaction() {
+        return nextDoc >= 1024 && deletedCount >= nextDoc * compactRatio;
+    }
+
+    /**
+     * Перестроение из снимка живых документов. Под блокировкой чтения - только копия массивов,
+     * новый индекс строится без блокировок, а под блокировкой записи в него переносятся изменения,
+     * сделанные за время построения, и структуры подменяются. Поиск и запись перестроение не ждут.
+     */
+    private void compactIfNeeded() {
+        if (!compacting.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            int snapshotCount;
+            long[] snapshotUserIds;
+            String[] snapshotTexts;
+            BitSet snapshotDeleted;
+            lock.readLock().lock();
+            try {
+                if (!needsCompaction()) {
+                    return;
+                }
+                snapshotCount = nextDoc;
+                snapshotUserIds = Arrays.copyOf(userIds, snapshotCount);
+                snapshotTexts = Arrays.copyOf(texts, snapshotCount);
+                snapshotDeleted = (BitSet) deleted.clone();
+            } finally {
+                lock.readLock().unlock();
+            }
+
+            UserSearchIndex compacted = new UserSearchIndex(snapshotCount - snapshotDeleted.cardinality(),
+                    maxCandidates, fuzzyMinSimilarity, compactRatio);
+            for (int docId = snapshotDeleted.nextClearBit(0); docId < snapshotCount;
+                 docId = snapshotDeleted.nextClearBit(docId + 1)) {
+                compacted.docByUser.put(snapshotUserIds[docId],
+                        compacted.addDocument(snapshotUserIds[docId], snapshotTexts[docId]));
+            }
+            compacted.postings.values().forEach(PostingList::trim);
+
+            lock.writeLock().lock();
+            try {
+                // Удаленные после снимка документы снимка
+                BitSet deletedSince = (BitSet) deleted.clone();
+                deletedSince.clear(snapshotCount, Math.max(snapshotCount, deletedSince.length()));
+                deletedSince.andNot(snapshotDeleted);
+                for (int docId = deletedSince.nextSetBit(0); docId >= 0; docId = deletedSince.nextSetBit(docId + 1)) {
+                    compacted.markDeleted(compacted.docByUser.remove(snapshotUserIds[docId]));
+                }
+                // Добавленные после снимка и еще живые
+                for (int docId = snapshotCount; docId < nextDoc; docId++) {
+                    if (!deleted.get(docId)) {
+                        compacted.docByUser.put(userIds[docId], compacted.addDocument(userIds[docId], texts[docId]));
+                    }
+                }
+                postings = compacted.postings;
+                docByUser = compacted.docByUser;
+                userIds = compacted.userIds;
+                texts = compacted.texts;
+                deleted = compacted.deleted;
+                nextDoc = compacted.nextDoc;
+                deletedCount = compacted.deletedCount;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        } finally {
+            compacting.set(false);
+        }
+    }
+
+    private void reset(int expectedUsers) {
+        int capacity = Math.max(16, expectedUsers);
+        postings = new HashMap<>();
+        docByUser = new LongIntHashMap(capacity);
+        userIds = new long[capacity];
+        texts = new String[capacity];
+        deleted = new BitSet();
+        nextDoc = 0;
+        deletedCount = 0;
+    }
+
+    // Уникальные триграммы обоих полей, включая префиксные
+    private static long[] documentGrams(String text) {
+        int separator = text.indexOf(FIELD_SEPARATOR);
+        String name = normalize(text.substring(0, separator));
+        String email = normalize(text.substring(separator + 1));
+        long[] grams = new long[name.length() + email.length()];
+        int count = paddedGrams(name, grams, 0);
+        count = paddedGrams(email, grams, count);
+        return unique(grams, count);
+    }
+
+    private static int paddedGrams(String field, long[] out, int offset) {
+        int count = offset;
+        for (int i = 0; i < field.length(); i++) {
+            char a = i >= 2 ? field.charAt(i - 2) : PAD;
+            char b = i >= 1 ? field.charAt(i - 1) : PAD;
+            out[count++] = gram(a, b, field.charAt(i));
+        }
+        return count;
+    }
+
+    private static long[] substringGrams(String value) {
+        if (value.length() < 3) {
+            return new long[0];
+        }
+        long[] grams = new long[value.length() - 2];
+        for (int i = 0; i + 2 < value.length(); i++) {
+            grams[i] = gram(value.charAt(i), value.charAt(i + 1), value.charAt(i + 2));
+        }
+        return unique(grams, grams.length);
+    }
+
+    private static long prefixGram(String q) {
+        return q.length() == 1 ? gram(PAD, PAD, q.charAt(0)) : gram(PAD, q.charAt(0), q.charAt(1));
+    }
+
+    private static long[] unique(long[] values, int count) {
+        Arrays.sort(values, 0, count);
+        int unique = 0;
+        for (int i = 0; i < count; i++) {
+            if (unique == 0 || values[i] != values[unique - 1]) {
+                values[unique++] = values[i];
+            }
+        }
+        return Arrays.copyOf(values, unique);
+    }
+
+    private static long gram(char a, char b, char c) {
+        return ((long) a << 32) | ((long) b << 16) | c;
+    }
+
+    private static String normalize(String value) {
+        return value == null ? "" : value.trim().toLowerCase(Locale.ROOT);
+    }
+
+    // length - длина имени: среди равных по рангу выше более короткое (ближе к запросу)
+    private record Match(int docId, double score, int length) {
+        // Хуже - раньше: вершина кучи вытесняется первой
+        static final Comparator<Match> ORDER = Comparator.comparingDouble(Match::score)
+                .thenComparing(Comparator.comparingInt(Match::length).reversed())
+                .thenComparing(Comparator.comparingInt(Match::docId).reversed());
+    }
+}
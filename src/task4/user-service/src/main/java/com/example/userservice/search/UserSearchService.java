@@ -0,0 +1,189 @@
+package com.example.userservice.search;
+
+import com.example.userservice.config.SearchProperties;
+import com.example.userservice.dto.UserSuggestion;
+import com.example.userservice.events.UserChangedEvent;
+import com.example.userservice.events.UserEventType;
+import com.example.userservice.events.UsersChangedEvent;
+import com.example.userservice.exception.SearchIndexNotReadyException;
+import com.example.userservice.model.User;
+import com.example.userservice.repository.UserRepository;
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+/**
+ * Подсказки по имени и email из индекса в памяти (см. {@link UserSearchIndex}).
+ * Индекс строится в фоне после старта потоковым чтением users и дальше обновляется событиями
+ * UserChangedEvent после коммита; изменения с других экземпляров приходят через reload().
+ * Пока загрузка не закончилась (в том числе повторами после ошибки), suggest отвечает 503.
+ * Загрузка занимает соединение из доли фоновых задач (bulkhead "background"), reload - из доли запросов ("database").
+ */
+@Slf4j
+@Service
+@ConditionalOnProperty(name = "app.search.enabled", havingValue = "true", matchIfMissing = true)
+public class UserSearchService {
+
+    // Сколько удалений во время загрузки помнить поштучно; сверх этого после загрузки сверяется весь индекс
+    static final int MAX_TRACKED_REMOVALS = 10_000;
+    private static final Duration MAX_RETRY_DELAY = Duration.ofMinutes(1);
+    private static final int RECONCILE_CHUNK = 1_000;
+
+    private final UserRepository userRepository;
+    private final TransactionTemplate readOnlyTransaction;
+    private final SearchProperties properties;
+    private final UserSearchIndex index;
+    private final Bulkhead backgroundBulkhead;
+    private final Bulkhead databaseBulkhead;
+
+    // Удаленные во время начальной загрузки: скан мог прочитать их до удаления
+    private final Set<Long> removedDuringBuild = ConcurrentHashMap.newKeySet();
+    private volatile boolean removalsOverflowed;
+    private volatile boolean ready;
+
+    public UserSearchService(UserRepository userRepository,
+                             PlatformTransactionManager transactionManager,
+                             SearchProperties properties,
+                             BulkheadRegistry bulkheadRegistry) {
+        this.userRepository = userRepository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.properties = properties;
+        this.index = new UserSearchIndex(properties.getExpectedUsers(), properties.getMaxCandidates(),
+                properties.getFuzzyMinSimilarity(), properties.getCompactRatio());
+        this.backgroundBulkhead = bulkheadRegistry.bulkhead("background");
+        this.databaseBulkhead = bulkheadRegistry.bulkhead("database");
+    }
+
+    // Старт приложения не ждет загрузки
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildOnStartup() {
+        Thread.ofPlatform().name("user-search-index").daemon().start(this::build);
+    }
+
+    // Повторяет загрузку до успеха: уже загруженное не теряется, putIfAbsent пропустит его при повторе
+    void build() {
+        Duration retryDelay = properties.getBuildRetryDelay();
+        while (!load()) {
+            try {
+                Thread.sleep(retryDelay);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            retryDelay = retryDelay.multipliedBy(2);
+            if (retryDelay.compareTo(MAX_RETRY_DELAY) > 0) {
+                retryDelay = MAX_RETRY_DELAY;
+            }
+        }
+    }
+
+    private boolean load() {
+        long start = System.nanoTime();
+        AtomicInteger loaded = new AtomicInteger();
+        try {
+            // Весь скан - одна транзакция: разрешение держится до ее конца, BulkheadFullException - повтор позже
+            backgroundBulkhead.executeRunnable(() -> readOnlyTransaction.executeWithoutResult(status -> {
+                try (Stream<IndexedUser> users = userRepository.streamAllForIndex()) {
+                    users.forEach(user -> {
+                        if (index.putIfAbsent(user.id(), user.name(), user.email())) {
+                            loaded.incrementAndGet();
+                        }
+                    });
+                }
+            }));
+            if (removalsOverflowed) {
+                reconcile();
+            }
+        } catch (RuntimeException e) {
+            log.error("Failed to build user search index after {} users, will retry", loaded.get(), e);
+            return false;
+        }
+        ready = true;
+        removedDuringBuild.forEach(index::remove);
+        removedDuringBuild.clear();
+        index.trim();
+        log.info("User search index built: {} users in {} ms, {}", loaded.get(),
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start), index.stats());
+        return true;
+    }
+
+    // Скан мог прочитать пользователей до их удаления, а поштучно удаленные уже не помещались в память
+    private void reconcile() {
+        removalsOverflowed = false;
+        long[] userIds = index.userIds();
+        log.warn("More than {} users deleted while building search index, reconciling {} users with database",
+                MAX_TRACKED_REMOVALS, userIds.length);
+        for (int from = 0; from < userIds.length; from += RECONCILE_CHUNK) {
+            reload(Arrays.stream(userIds, from, Math.min(from + RECONCILE_CHUNK, userIds.length)).boxed().toList());
+        }
+    }
+
+    public List<UserSuggestion> suggest(String query, int limit) {
+        if (!ready) {
+            throw new SearchIndexNotReadyException();
+        }
+        return index.suggest(query, Math.min(limit, properties.getMaxLimit()));
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public UserSearchIndex.Stats stats() {
+        return index.stats();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserChanged(UserChangedEvent event) {
+        if (event.type() == UserEventType.USER_DELETED) {
+            remove(event.userId());
+        } else if (event.name() != null) {
+            index.upsert(event.userId(), event.name(), event.email());
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUsersChanged(UsersChangedEvent event) {
+        event.changes().forEach(this::onUserChanged);
+    }
+
+    // Изменение на другом экземпляре: в сообщении инвалидации только id, актуальные данные - одним запросом из БД
+    public void reload(Collection<Long> userIds) {
+        Set<Long> missing = new HashSet<>(userIds);
+        for (User user : databaseBulkhead.executeSupplier(() -> userRepository.findAllById(userIds))) {
+            index.upsert(user.getId(), user.getName(), user.getEmail());
+            missing.remove(user.getId());
+        }
+        missing.forEach(this::remove);
+    }
+
+    private void remove(Long userId) {
+        if (!ready) {
+            if (removedDuringBuild.size() < MAX_TRACKED_REMOVALS) {
+                removedDuringBuild.add(userId);
+            } else {
+                removalsOverflowed = true;
+            }
+        }
+        index.remove(userId);
+    }
+}
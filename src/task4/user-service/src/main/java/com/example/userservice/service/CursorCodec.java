@@ -0,0 +1,85 @@
+package com.example.userservice.service;
+
+import com.example.userservice.exception.InvalidCursorException;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.Base64;
+
+/**
+ * Непрозрачный курсор keyset-пагинации: (name, id) последней строки страницы,
+ * для поиска по возрасту - (age, name, id), закодированные в base64url.
+ * Клиент не должен разбирать или собирать курсор сам; курсор одного списка не подходит к другому.
+ */
+public final class CursorCodec {
+
+    private static final byte VERSION = 1;
+    private static final byte AGE_VERSION = 2;
+
+    public record Position(String name, long id) {
+    }
+
+    public record AgePosition(int age, String name, long id) {
+    }
+
+    private CursorCodec() {
+    }
+
+    public static String encode(String name, long id) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(name.length() + 16);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeByte(VERSION);
+            out.writeUTF(name);
+            out.writeLong(id);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes.toByteArray());
+    }
+
+    public static String encode(int age, String name, long id) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(name.length() + 20);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeByte(AGE_VERSION);
+            out.writeInt(age);
+            out.writeUTF(name);
+            out.writeLong(id);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes.toByteArray());
+    }
+
+    public static AgePosition decodeAge(String cursor) {
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(Base64.getUrlDecoder().decode(cursor)))) {
+            if (in.readByte() != AGE_VERSION) {
+                throw new InvalidCursorException(cursor);
+            }
+            AgePosition position = new AgePosition(in.readInt(), in.readUTF(), in.readLong());
+            if (in.available() > 0) {
+                throw new InvalidCursorException(cursor);
+            }
+            return position;
+        } catch (IOException | IllegalArgumentException e) {
+            throw new InvalidCursorException(cursor);
+        }
+    }
+
+    public static Position decode(String cursor) {
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(Base64.getUrlDecoder().decode(cursor)))) {
+            if (in.readByte() != VERSION) {
+                throw new InvalidCursorException(cursor);
+            }
+            Position position = new Position(in.readUTF(), in.readLong());
+            if (in.available() > 0) {
+                throw new InvalidCursorException(cursor);
+            }
+            return position;
+        } catch (IOException | IllegalArgumentException e) {
+            throw new InvalidCursorException(cursor);
+        }
+    }
+}
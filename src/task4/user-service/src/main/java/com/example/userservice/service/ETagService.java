@@ -0,0 +1,122 @@
+package com.example.userservice.service;
+
+import com.example.userservice.config.GenerationKeyGenerator;
+import com.example.userservice.dto.UserResponse;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.web.HttpMediaTypeNotAcceptableException;
+import org.springframework.web.accept.ContentNegotiationManager;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.WebRequest;
+
+import java.time.Instant;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Условные GET: If-None-Match / If-Modified-Since проверяются до ссылок HATEOAS и сериализации,
+ * при совпадении ответ 304 без тела. checkNotModified также выставляет ETag/Last-Modified в ответ,
+ * а Vary: Accept - и в 200, и в 304: представление (JSON, CBOR, Smile) выбирается по Accept.
+ * Пользователь версионируется по id + updatedAt. Списки - по поколению GenerationKeyGenerator,
+ * которое растет при любой записи (и при инвалидации с других экземпляров); поколение живет в памяти
+ * и начинается с нуля, поэтому в ETag входит идентификатор запуска.
+ * <p>
+ * Ограничения ETag списков при нескольких экземплярах:
+ * <ul>
+ *     <li>ETag действителен только на выдавшем его экземпляре. Клиент, которого балансировщик отправил
+ *     на другой экземпляр (или тот же после перезапуска), получает 200 с полным телом, а не 304.
+ *     Ложного 304 при этом не бывает: у экземпляров разные bootId.</li>
+ *     <li>Запись на другом экземпляре меняет ETag здесь только после прихода инвалидации через Kafka.
+ *     До этого здесь отвечают 304 на уже измененные данные - с той же задержкой, с какой устаревает
+ *     кэш страниц. Без инвалидаций (app.cache.invalidation.enabled=false или брокер недоступен)
+ *     ETag списков не меняется от чужих записей вовсе, до перезапуска экземпляра.</li>
+ * </ul>
+ * Валидатор из самих данных (max(updated_at) + count(*)) был бы общим для экземпляров, но стоил бы
+ * запроса на каждый условный GET и ломался бы при расхождении часов экземпляров, пишущих updatedAt.
+ */
+@Service
+@RequiredArgsConstructor
+public class ETagService {
+
+    private static final MediaType SMILE = MediaType.valueOf("application/x-jackson-smile");
+    // В порядке конвертеров Spring MVC: при Accept */* выбирается JSON
+    private static final List<MediaType> PRODUCIBLE = List.of(MediaType.APPLICATION_JSON, SMILE, MediaType.APPLICATION_CBOR);
+
+    private final String bootId = UUID.randomUUID().toString().substring(0, 8);
+    private final GenerationKeyGenerator generationKeyGenerator;
+    private final ContentNegotiationManager contentNegotiationManager;
+
+    public boolean checkUserNotModified(UserResponse user, WebRequest request) {
+        varyByAccept(request);
+        if (user.getUpdatedAt() == null) {
+            return false;
+        }
+        Instant modified = user.getUpdatedAt().atZone(ZoneId.systemDefault()).toInstant();
+        // Last-Modified с точностью до секунды, ETag - до микросекунды, как хранит PostgreSQL
+        long micros = modified.getEpochSecond() * 1_000_000 + modified.getNano() / 1_000;
+        return request.checkNotModified(
+                "\"" + user.getId() + "-" + Long.toString(micros, 36) + representation(request) + "\"",
+                modified.toEpochMilli());
+    }
+
+    // Вызывать до чтения данных: иначе данные, прочитанные до записи, получат ETag нового поколения.
+    // ETag локален для экземпляра, см. ограничения в описании класса
+    public boolean checkPageNotModified(WebRequest request, boolean lean) {
+        varyByAccept(request);
+        String etag = "\"" + bootId + "-" + generationKeyGenerator.currentGeneration()
+                + (lean ? "-lean" : "") + representation(request) + "\"";
+        return request.checkNotModified(etag);
+    }
+
+    /**
+     * Строгий ETag различается для разных кодировок одного ресурса (JSON, CBOR, Smile).
+     * Тип выбирается так же, как потом при записи тела: типы из Accept, совместимые с производимыми,
+     * по убыванию q, при равном q - в порядке Accept. Без подходящего типа ответ будет 406, суффикс не важен.
+     */
+    private String representation(WebRequest request) {
+        if (!(request instanceof NativeWebRequest nativeRequest)) {
+            return "";
+        }
+        List<MediaType> accepted;
+        try {
+            accepted = contentNegotiationManager.resolveMediaTypes(nativeRequest);
+        } catch (HttpMediaTypeNotAcceptableException e) {
+            return "";
+        }
+        List<MediaType> candidates = new ArrayList<>();
+        for (MediaType requested : accepted) {
+            for (MediaType producible : PRODUCIBLE) {
+                if (requested.isCompatibleWith(producible)) {
+                    candidates.add(producible.copyQualityValue(requested));
+                }
+            }
+        }
+        // Сортировка устойчивая: при равном q остается порядок Accept
+        candidates.sort(Comparator.comparingDouble(MediaType::getQualityValue).reversed());
+        if (candidates.isEmpty() || candidates.get(0).getQualityValue() == 0) {
+            return "";
+        }
+        MediaType selected = candidates.get(0);
+        if (selected.isCompatibleWith(MediaType.APPLICATION_CBOR)) {
+            return "-cbor";
+        }
+        return selected.isCompatibleWith(SMILE) ? "-smile" : "";
+    }
+
+    // Кэши и прокси не должны отдать CBOR клиенту, который просил JSON
+    private static void varyByAccept(WebRequest request) {
+        if (!(request instanceof NativeWebRequest nativeRequest)) {
+            return;
+        }
+        HttpServletResponse response = nativeRequest.getNativeResponse(HttpServletResponse.class);
+        if (response != null && !response.getHeaders(HttpHeaders.VARY).contains(HttpHeaders.ACCEPT)) {
+            response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+        }
+    }
+}
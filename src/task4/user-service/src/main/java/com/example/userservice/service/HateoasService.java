@@ -1,26 +1,87 @@
 package com.example.userservice.service;
 
+import com.example.userservice.controller.UserController;
 import com.example.userservice.dto.UserResponse;
+import org.springframework.core.annotation.AnnotatedElementUtils;
 import org.springframework.data.domain.Page;
+import org.springframework.hateoas.IanaLinkRelations;
+import org.springframework.hateoas.Link;
 import org.springframework.stereotype.Service;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
-import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.linkTo;
-import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.methodOn;
-import com.example.userservice.controller.UserController;
+import java.lang.reflect.Method;
+import java.util.Arrays;
 
+/**
+ * Ссылки HATEOAS для UserResponse.
+ * linkTo(methodOn(...)) на каждую ссылку создает прокси и заново разбирает маппинги и URI запроса,
+ * поэтому шаблоны путей берутся из аннотаций UserController один раз, а базовый URI - один раз на ответ.
+ * Ответы из кэша не изменяются: ссылки добавляются к копии.
+ */
 @Service
 public class HateoasService {
 
-    public Page<UserResponse> addLinksToPage(Page<UserResponse> users) {
-        users.getContent().forEach(this::addLinksToUser);
-        return users;
+    // Accept с этим типом (или ?lean=true) - списки без ссылок у каждого элемента
+    public static final String LEAN_MEDIA_TYPE = "application/vnd.users.lean+json";
+
+    private static final LinkTemplate USER = LinkTemplate.of("getUser");
+    private static final LinkTemplate ALL_USERS = LinkTemplate.of("getAllUsers");
+    private static final LinkTemplate UPDATE = LinkTemplate.of("updateUser");
+    private static final LinkTemplate DELETE = LinkTemplate.of("deleteUser");
+
+    public Page<UserResponse> addLinksToPage(Page<UserResponse> users, boolean lean) {
+        if (lean) {
+            return users;
+        }
+        String baseUri = currentBaseUri();
+        Link allUsers = Link.of(ALL_USERS.expand(baseUri, null), "all-users");
+        return users.map(user -> withLinks(user, baseUri, allUsers));
     }
 
     public UserResponse addLinksToUser(UserResponse user) {
-        user.add(linkTo(methodOn(UserController.class).getUser(user.getId())).withSelfRel());
-        user.add(linkTo(methodOn(UserController.class).getAllUsers(null)).withRel("all-users"));
-        user.add(linkTo(methodOn(UserController.class).updateUser(user.getId(), null)).withRel("update"));
-        user.add(linkTo(methodOn(UserController.class).deleteUser(user.getId())).withRel("delete"));
-        return user;
+        String baseUri = currentBaseUri();
+        return withLinks(user, baseUri, Link.of(ALL_USERS.expand(baseUri, null), "all-users"));
+    }
+
+    private UserResponse withLinks(UserResponse user, String baseUri, Link allUsers) {
+        UserResponse response = user.toBuilder().build();
+        response.add(Link.of(USER.expand(baseUri, user.getId()), IanaLinkRelations.SELF));
+        response.add(allUsers);
+        response.add(Link.of(UPDATE.expand(baseUri, user.getId()), "update"));
+        response.add(Link.of(DELETE.expand(baseUri, user.getId()), "delete"));
+        return response;
+    }
+
+    // Схема, хост и context path текущего запроса, с учетом X-Forwarded-* (как у WebMvcLinkBuilder)
+    private static String currentBaseUri() {
+        return ServletUriComponentsBuilder.fromCurrentServletMapping().build().toUriString();
+    }
+
+    // Путь метода контроллера, разбитый на части до и после {id}
+    private record LinkTemplate(String prefix, String suffix) {
+
+        private static final String ID_VARIABLE = "{id}";
+
+        static LinkTemplate of(String methodName) {
+            Method method = Arrays.stream(UserController.class.getDeclaredMethods())
+                    .filter(m -> m.getName().equals(methodName))
+                    .findFirst()
+                    .orElseThrow(() -> new IllegalStateException("UserController has no method " + methodName));
+            String path = firstPath(AnnotatedElementUtils.findMergedAnnotation(UserController.class, RequestMapping.class))
+                    + firstPath(AnnotatedElementUtils.findMergedAnnotation(method, RequestMapping.class));
+            int variable = path.indexOf(ID_VARIABLE);
+            return variable < 0
+                    ? new LinkTemplate(path, "")
+                    : new LinkTemplate(path.substring(0, variable), path.substring(variable + ID_VARIABLE.length()));
+        }
+
+        String expand(String baseUri, Long id) {
+            return id == null ? baseUri + prefix + suffix : baseUri + prefix + id + suffix;
+        }
+
+        private static String firstPath(RequestMapping mapping) {
+            return mapping == null || mapping.path().length == 0 ? "" : mapping.path()[0];
+        }
     }
 }
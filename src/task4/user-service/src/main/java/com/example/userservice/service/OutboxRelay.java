@@ -0,0 +1,148 @@
+package com.example.userservice.service;
+
+import com.example.userservice.config.OutboxProperties;
+import com.example.userservice.dto.UserEvent;
+import com.example.userservice.model.OutboxEvent;
+import com.example.userservice.repository.OutboxEventRepository;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Публикует события из outbox_events в Kafka пачками.
+ * Пользователи пачки закрепляются за экземпляром advisory-блокировкой на время транзакции, экземпляры
+ * не ждут друг друга (см. lockNextBatch). Подтвержденные брокером события удаляются,
+ * неподтвержденные остаются и будут отправлены повторно (at-least-once). При недоступном брокере
+ * события копятся в таблице, запись пользователей при этом не блокируется.
+ * Порядок событий одного пользователя сохраняется: пачка берет пользователя целиком (см. lockNextBatch),
+ * а после первой неудачной отправки пачка дальше не отправляется.
+ * Транзакция пачки занимает разрешение bulkhead "background": соединения relay не отнимаются у запросов.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "app.outbox.relay.enabled", havingValue = "true", matchIfMissing = true)
+public class OutboxRelay {
+
+    private final OutboxEventRepository outboxRepository;
+    private final KafkaTemplate<String, UserEvent> kafkaTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final OutboxProperties properties;
+    private final BulkheadRegistry bulkheadRegistry;
+
+    @Scheduled(fixedDelayString = "${app.outbox.poll-interval-ms:500}")
+    public void relay() {
+        Integer published;
+        // Полная пачка - в таблице, скорее всего, есть еще: продолжаем без паузы
+        do {
+            try {
+                published = bulkheadRegistry.bulkhead("background")
+                        .executeSupplier(() -> transactionTemplate.execute(status -> relayBatch()));
+            } catch (BulkheadFullException e) {
+                log.warn("Outbox relay skipped: {}", e.getMessage());
+                return;
+            }
+        } while (published != null && published == properties.getBatchSize());
+    }
+
+    // Возвращает число опубликованных событий; вызывается внутри транзакции
+    int relayBatch() {
+        List<OutboxEvent> batch = outboxRepository.lockNextBatch(properties.getBatchSize());
+        if (batch.isEmpty()) {
+            return 0;
+        }
+
+        // Общий срок на пачку: транзакция держит блокировки строк и соединение из пула
+        long deadline = System.nanoTime() + properties.getSendTimeout().toNanos();
+        Semaphore inFlight = new Semaphore(properties.getMaxInFlight());
+        AtomicReference<Throwable> sendError = new AtomicReference<>();
+        List<CompletableFuture<?>> sends = new ArrayList<>(batch.size());
+        for (OutboxEvent event : batch) {
+            // После первого отказа брокера остальное не отправляется: каждый send при недоступном брокере
+            // ждет max.block.ms, а события пользователя после неотправленного ушли бы раньше него
+            if (sendError.get() != null || !acquire(inFlight, deadline)) {
+                break;
+            }
+            CompletableFuture<?> send;
+            try {
+                // Ключ - id пользователя: события одного пользователя попадают в одну партицию и не переупорядочиваются
+                send = kafkaTemplate.send(event.getTopic(), event.getAggregateId().toString(), event.getPayload());
+            } catch (RuntimeException e) {
+                send = CompletableFuture.failedFuture(e);
+            }
+            send.whenComplete((result, ex) -> {
+                inFlight.release();
+                if (ex != null) {
+                    sendError.compareAndSet(null, ex);
+                }
+            });
+            sends.add(send);
+        }
+
+        List<Long> published = new ArrayList<>(sends.size());
+        List<Long> failed = new ArrayList<>();
+        Set<Long> failedAggregates = new HashSet<>();
+        Throwable lastError = sendError.get();
+        for (int i = 0; i < sends.size(); i++) {
+            OutboxEvent event = batch.get(i);
+            // Более поздние события пользователя с неудачной отправкой остаются в таблице, даже если брокер
+            // их подтвердил: они уйдут повторно после неудачного, и последним у потребителя будет последнее
+            if (failedAggregates.contains(event.getAggregateId())) {
+                continue;
+            }
+            try {
+                sends.get(i).get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+                published.add(event.getId());
+            } catch (ExecutionException | TimeoutException e) {
+                failed.add(event.getId());
+                failedAggregates.add(event.getAggregateId());
+                lastError = e instanceof ExecutionException ? e.getCause() : e;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                failed.add(event.getId());
+                failedAggregates.add(event.getAggregateId());
+                lastError = e;
+            }
+        }
+
+        if (!published.isEmpty()) {
+            outboxRepository.deleteAllByIdInBatch(published);
+        }
+        if (!failed.isEmpty()) {
+            outboxRepository.incrementAttempts(failed);
+        }
+        if (published.size() < batch.size()) {
+            log.warn("Outbox relay: {} of {} events not published ({} failed), will retry: {}",
+                    batch.size() - published.size(), batch.size(), failed.size(),
+                    lastError != null ? lastError.getMessage() : "send deadline exceeded");
+        }
+        log.debug("Outbox relay: published {} events", published.size());
+        return published.size();
+    }
+
+    private static boolean acquire(Semaphore inFlight, long deadline) {
+        try {
+            return inFlight.tryAcquire(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
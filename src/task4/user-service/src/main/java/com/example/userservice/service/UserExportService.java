@@ -0,0 +1,185 @@
+package com.example.userservice.service;
+
+import com.example.userservice.dto.UserExportRow;
+import com.example.userservice.repository.UserRepository;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.async.CallableProcessingInterceptor;
+import org.springframework.web.context.request.async.WebAsyncManager;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.Callable;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+/**
+ * Потоковая выгрузка пользователей в NDJSON или CSV.
+ * Строки читаются курсором PostgreSQL и пишутся сразу в ответ, с flush каждые FLUSH_EVERY строк:
+ * память не зависит от размера таблицы. Соединение занято на всю выгрузку, поэтому одновременных
+ * выгрузок немного - bulkhead "export".
+ * Разрешение берется в open() до ответа, а не аннотацией вокруг export(): тело StreamingResponseBody
+ * выполняется уже после отправки 200 и заголовков, и отказ там не превратился бы в 503.
+ */
+@Slf4j
+@Service
+public class UserExportService {
+
+    public static final String BULKHEAD_NAME = "export";
+
+    static final String PERMIT_RELEASE_INTERCEPTOR = UserExportService.class.getName() + ".permitRelease";
+
+    private static final int FLUSH_EVERY = 1_000;
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final String CSV_HEADER = "id,name,email,age,created_at,updated_at";
+
+    @Getter
+    @RequiredArgsConstructor
+    public enum Format {
+        NDJSON("application/x-ndjson"),
+        CSV("text/csv");
+
+        private final String mediaType;
+    }
+
+    private final UserRepository userRepository;
+    private final ObjectWriter rowWriter;
+    private final TransactionTemplate readOnlyTransaction;
+    private final Bulkhead bulkhead;
+
+    public UserExportService(UserRepository userRepository,
+                             ObjectMapper objectMapper,
+                             PlatformTransactionManager transactionManager,
+                             BulkheadRegistry bulkheadRegistry) {
+        this.userRepository = userRepository;
+        // Поток ответа не закрывается и не сбрасывается после каждой строки - flush делает write()
+        this.rowWriter = objectMapper.writerFor(UserExportRow.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE)
+                .withoutFeatures(JsonGenerator.Feature.AUTO_CLOSE_TARGET, JsonGenerator.Feature.FLUSH_PASSED_TO_STREAM);
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.bulkhead = bulkheadRegistry.bulkhead(BULKHEAD_NAME);
+    }
+
+    /**
+     * Занимает место в bulkhead "export" сразу (BulkheadFullException - 503 до начала ответа)
+     * и возвращает тело ответа, которое освобождает его по окончании выгрузки.
+     * Тело может не выполниться вовсе (таймаут или ошибка асинхронной обработки до его запуска):
+     * место принадлежит тому, кто первым его заберет - запущенному телу или завершению асинхронной
+     * обработки запроса. Начатая выгрузка освобождает место сама, даже если запрос уже завершен по таймауту.
+     */
+    public StreamingResponseBody open(Format format, int minAge, int maxAge, WebAsyncManager asyncManager) {
+        bulkhead.acquirePermission();
+        AtomicBoolean claimed = new AtomicBoolean();
+        asyncManager.registerCallableInterceptor(PERMIT_RELEASE_INTERCEPTOR, new CallableProcessingInterceptor() {
+            @Override
+            public <T> void afterCompletion(NativeWebRequest request, Callable<T> task) {
+                if (claimed.compareAndSet(false, true)) {
+                    bulkhead.onComplete();
+                }
+            }
+        });
+        return out -> {
+            if (!claimed.compareAndSet(false, true)) {
+                return;
+            }
+            try {
+                export(format, minAge, maxAge, out);
+            } finally {
+                bulkhead.onComplete();
+            }
+        };
+    }
+
+    // Возвращает число выгруженных строк
+    public long export(Format format, int minAge, int maxAge, OutputStream out) {
+        long start = System.nanoTime();
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), BUFFER_SIZE);
+        Long exported = readOnlyTransaction.execute(status -> {
+            try (Stream<UserExportRow> rows = userRepository.streamForExport(minAge, maxAge)) {
+                return write(format, rows, writer);
+            } catch (IOException e) {
+                // Клиент закрыл соединение: транзакция откатывается, курсор закрывается
+                throw new UncheckedIOException(e);
+            }
+        });
+        log.info("Exported {} users as {} in {} ms", exported, format,
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        return exported == null ? 0 : exported;
+    }
+
+    private long write(Format format, Stream<UserExportRow> rows, Writer writer) throws IOException {
+        if (format == Format.CSV) {
+            writer.write(CSV_HEADER);
+            writer.write('\n');
+        }
+        long count = 0;
+        for (UserExportRow row : (Iterable<UserExportRow>) rows::iterator) {
+            if (format == Format.CSV) {
+                writeCsv(row, writer);
+            } else {
+                rowWriter.writeValue(writer, row);
+                writer.write('\n');
+            }
+            if (++count % FLUSH_EVERY == 0) {
+                writer.flush();
+            }
+        }
+        writer.flush();
+        return count;
+    }
+
+    private static void writeCsv(UserExportRow row, Writer writer) throws IOException {
+        writer.write(String.valueOf(row.id()));
+        writer.write(',');
+        writeCsvField(row.name(), writer);
+        writer.write(',');
+        writeCsvField(row.email(), writer);
+        writer.write(',');
+        writer.write(String.valueOf(row.age()));
+        writer.write(',');
+        writer.write(row.createdAt() == null ? "" : row.createdAt().toString());
+        writer.write(',');
+        writer.write(row.updatedAt() == null ? "" : row.updatedAt().toString());
+        writer.write('\n');
+    }
+
+    // RFC 4180: поле с запятой, кавычкой или переводом строки берется в кавычки, кавычки удваиваются.
+    // Поле, которое Excel или LibreOffice прочли бы как формулу (= + - @, табуляция, CR в начале),
+    // получает префикс ' и открывается как текст (CSV injection)
+    static void writeCsvField(String value, Writer writer) throws IOException {
+        if (value == null) {
+            return;
+        }
+        if (!value.isEmpty() && "=+-@\t\r".indexOf(value.charAt(0)) >= 0) {
+            value = "'" + value;
+        }
+        boolean quote = value.indexOf(',') >= 0 || value.indexOf('"') >= 0
+                || value.indexOf('\n') >= 0 || value.indexOf('\r') >= 0;
+        if (!quote) {
+            writer.write(value);
+            return;
+        }
+        writer.write('"');
+        writer.write(value.replace("\"", "\"\""));
+        writer.write('"');
+    }
+}
@@ -1,43 +1,74 @@
 package com.example.userservice.service;
 
+import com.example.userservice.config.AppConfig;
+import com.example.userservice.config.BatchProperties;
+import com.example.userservice.config.GenerationKeyGenerator;
 import com.example.userservice.config.KafkaConfig;
+import com.example.userservice.dto.BatchUserResult;
+import com.example.userservice.dto.CursorPage;
+import com.example.userservice.dto.UserBatchUpdateRequest;
+import com.example.userservice.dto.UserEvent;
 import com.example.userservice.dto.UserRequest;
 import com.example.userservice.dto.UserResponse;
+import com.example.userservice.events.UserChangedEvent;
 import com.example.userservice.events.UserEventType;
+import com.example.userservice.events.UsersChangedEvent;
+import com.example.userservice.exception.BatchSizeExceededException;
 import com.example.userservice.exception.UserAlreadyExistsException;
 import com.example.userservice.exception.UserNotFoundException;
 import com.example.userservice.mapper.UserMapper;
+import com.example.userservice.model.OutboxEvent;
 import com.example.userservice.model.User;
+import com.example.userservice.repository.OutboxEventRepository;
 import com.example.userservice.repository.UserRepository;
-import io.github.resilience4j.circuitbreaker.annotation.CircuitBreaker;
-import io.github.resilience4j.retry.annotation.Retry;
-import io.github.resilience4j.timelimiter.annotation.TimeLimiter;
+import io.github.resilience4j.bulkhead.annotation.Bulkhead;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.CachePut;
 import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
-import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
-import java.util.concurrent.CompletableFuture;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
+// Bulkhead "database" ограничивает число одновременных обращений к БД размером пула соединений:
+// с виртуальными потоками запросов может быть сколько угодно, лишние получают 503 вместо ожидания соединения
 @Slf4j
 @Service
 @RequiredArgsConstructor
+@Bulkhead(name = "database")
 public class UserService {
 
     private final UserRepository userRepository;
     private final UserMapper userMapper;
-    private final KafkaTemplate<String, Map<String, Object>> kafkaTemplate;
+    private final OutboxEventRepository outboxEventRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final CacheManager cacheManager;
+    private final Validator validator;
+    private final BatchProperties batchProperties;
 
     @Transactional
-    @CacheEvict(value = "users", allEntries = true)
+    @CachePut(value = AppConfig.USERS_BY_ID_CACHE, key = "#result.id")
     public UserResponse createUser(UserRequest request) {
         if (userRepository.existsByEmail(request.getEmail())) {
             throw new UserAlreadyExistsException(request.getEmail());
@@ -46,15 +77,17 @@ public class UserService {
         User user = userMapper.toEntity(request);
         user = userRepository.save(user);
         log.info("Created user ID: {}", user.getId());
+        eventPublisher.publishEvent(
+                new UserChangedEvent(UserEventType.USER_CREATED, user.getId(), user.getName(), user.getEmail(),
+                        user.getAge(), null));
 
-        // Публикация события
-        publishUserEventAsync(createUserEvent(user, UserEventType.USER_CREATED), KafkaConfig.USER_CREATED_TOPIC);
+        enqueueEvent(user, UserEventType.USER_CREATED, KafkaConfig.USER_CREATED_TOPIC);
 
         return userMapper.toResponse(user);
     }
 
     @Transactional(readOnly = true)
-    @Cacheable(value = "users", key = "#id")
+    @Cacheable(value = AppConfig.USERS_BY_ID_CACHE, key = "#id")
     public UserResponse getUserById(Long id) {
         return userRepository.findById(id)
                 .map(userMapper::toResponse)
@@ -62,14 +95,14 @@ public class UserService {
     }
 
     @Transactional(readOnly = true)
-    @Cacheable(value = "users", key = "#pageable.pageNumber + '-' + #pageable.pageSize")
+    @Cacheable(value = AppConfig.USER_PAGES_CACHE, keyGenerator = GenerationKeyGenerator.BEAN_NAME)
     public Page<UserResponse> getAllUsers(Pageable pageable) {
         return userRepository.findAll(pageable)
                 .map(userMapper::toResponse);
     }
 
     @Transactional
-    @CacheEvict(value = "users", allEntries = true)
+    @CachePut(value = AppConfig.USERS_BY_ID_CACHE, key = "#id")
     public UserResponse updateUser(Long id, UserRequest request) {
         User user = userRepository.findById(id)
                 .orElseThrow(() -> new UserNotFoundException(id));
@@ -79,68 +112,279 @@ public class UserService {
             throw new UserAlreadyExistsException(request.getEmail());
         }
 
+        Integer previousAge = user.getAge();
         userMapper.updateFromRequest(request, user);
-        user = userRepository.save(user);
+        // flush до маппинга: updatedAt (ETag и Last-Modified ответа и кэша) выставляется в @PreUpdate
+        user = userRepository.saveAndFlush(user);
         log.info("Updated user ID: {}", id);
+        eventPublisher.publishEvent(
+                new UserChangedEvent(UserEventType.USER_UPDATED, id, user.getName(), user.getEmail(),
+                        user.getAge(), previousAge));
 
-        publishUserEventAsync(createUserEvent(user, UserEventType.USER_UPDATED), KafkaConfig.USER_UPDATED_TOPIC);
+        enqueueEvent(user, UserEventType.USER_UPDATED, KafkaConfig.USER_UPDATED_TOPIC);
 
         return userMapper.toResponse(user);
     }
 
     @Transactional
-    @CacheEvict(value = "users", allEntries = true)
+    @CacheEvict(value = AppConfig.USERS_BY_ID_CACHE, key = "#id")
     public void deleteUser(Long id) {
         User user = userRepository.findById(id)
                 .orElseThrow(() -> new UserNotFoundException(id));
 
         userRepository.deleteById(id);
         log.info("Deleted user ID: {}", id);
+        eventPublisher.publishEvent(new UserChangedEvent(UserEventType.USER_DELETED, id, null, null, null, user.getAge()));
 
-        // Публикация события удаления
-        publishUserEventAsync(createUserEvent(user, UserEventType.USER_DELETED), KafkaConfig.USER_DELETED_TOPIC);
+        enqueueEvent(user, UserEventType.USER_DELETED, KafkaConfig.USER_DELETED_TOPIC);
     }
 
     @Transactional(readOnly = true)
-    public List<UserResponse> searchUsers(String name) {
-        return userRepository.searchByName(name).stream()
-                .map(userMapper::toResponse)
-                .toList();
+    @Cacheable(value = AppConfig.USER_SEARCHES_CACHE, keyGenerator = GenerationKeyGenerator.BEAN_NAME)
+    public Slice<UserResponse> searchUsers(String query, Pageable pageable) {
+        String normalized = query.trim().toLowerCase(Locale.ROOT);
+        // Лишняя строка показывает, есть ли следующая страница, вместо COUNT по всем совпадениям
+        List<User> rows = userRepository.search(
+                "%" + escapeLike(normalized) + "%", normalized, pageable.getPageSize() + 1, pageable.getOffset());
+        boolean hasNext = rows.size() > pageable.getPageSize();
+        List<User> page = hasNext ? rows.subList(0, pageable.getPageSize()) : rows;
+        return new SliceImpl<>(page.stream().map(userMapper::toResponse).toList(), pageable, hasNext);
+    }
+
+    private static String escapeLike(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
     }
 
     @Transactional(readOnly = true)
+    @Cacheable(value = AppConfig.USER_SEARCHES_CACHE, keyGenerator = GenerationKeyGenerator.BEAN_NAME)
     public Page<UserResponse> findUsersByAgeRange(int minAge, int maxAge, Pageable pageable) {
         return userRepository.findByAgeBetween(minAge, maxAge, pageable)
                 .map(userMapper::toResponse);
     }
 
-    // ----------------- Circuit Breaker + Retry + TimeLimiter для публикации событий -----------------
+    // Keyset-пагинация: курсор хранит (name, id) последней строки, COUNT не выполняется
+    @Transactional(readOnly = true)
+    @Cacheable(value = AppConfig.USER_PAGES_CACHE, keyGenerator = GenerationKeyGenerator.BEAN_NAME)
+    public CursorPage<UserResponse> getUsersAfter(String cursor, int size) {
+        // Лишняя строка показывает, есть ли следующая страница
+        Limit limit = Limit.of(size + 1);
+        if (cursor == null) {
+            return toCursorPage(userRepository.findFirstByNameOrder(limit), size, UserService::nameCursor);
+        }
+        CursorCodec.Position after = CursorCodec.decode(cursor);
+        return toCursorPage(userRepository.findAfterByNameOrder(after.name(), after.id(), limit), size,
+                UserService::nameCursor);
+    }
+
+    // Порядок (age, name, id) - по индексу idx_users_age_name_id, без сортировки всех совпадений
+    @Transactional(readOnly = true)
+    @Cacheable(value = AppConfig.USER_SEARCHES_CACHE, keyGenerator = GenerationKeyGenerator.BEAN_NAME)
+    public CursorPage<UserResponse> findUsersByAgeRangeAfter(int minAge, int maxAge, String cursor, int size) {
+        Limit limit = Limit.of(size + 1);
+        if (cursor == null) {
+            return toCursorPage(userRepository.findFirstByAgeBetween(minAge, maxAge, limit), size,
+                    UserService::ageCursor);
+        }
+        CursorCodec.AgePosition after = CursorCodec.decodeAge(cursor);
+        return toCursorPage(userRepository.findAfterByAgeBetween(
+                minAge, maxAge, after.age(), after.name(), after.id(), limit), size, UserService::ageCursor);
+    }
+
+    private static String nameCursor(User user) {
+        return CursorCodec.encode(user.getName(), user.getId());
+    }
+
+    private static String ageCursor(User user) {
+        return CursorCodec.encode(user.getAge(), user.getName(), user.getId());
+    }
+
+    private CursorPage<UserResponse> toCursorPage(List<User> rows, int size, Function<User, String> cursorOf) {
+        boolean hasNext = rows.size() > size;
+        List<User> page = hasNext ? rows.subList(0, size) : rows;
+        String nextCursor = null;
+        if (hasNext) {
+            nextCursor = cursorOf.apply(page.get(page.size() - 1));
+        }
+        return new CursorPage<>(page.stream().map(userMapper::toResponse).toList(), size, nextCursor, hasNext);
+    }
+
+    /**
+     * Пакетное создание: уникальность email проверяется одним IN-запросом, INSERT-ы пользователей
+     * и событий outbox уходят JDBC-батчами. Невалидные элементы и дубликаты email получают свой статус,
+     * остальные создаются.
+     */
+    @Transactional
+    public List<BatchUserResult> createUsers(List<UserRequest> requests) {
+        checkBatchSize(requests.size());
+
+        BatchUserResult[] results = new BatchUserResult[requests.size()];
+        Set<String> candidates = new HashSet<>();
+        for (int i = 0; i < requests.size(); i++) {
+            List<String> errors = validate(requests.get(i));
+            if (errors.isEmpty()) {
+                candidates.add(requests.get(i).getEmail());
+            } else {
+                results[i] = BatchUserResult.failure(i, BatchUserResult.Status.INVALID, errors);
+            }
+        }
+
+        Set<String> taken = candidates.isEmpty()
+                ? new HashSet<>()
+                : new HashSet<>(userRepository.findExistingEmails(candidates));
+        List<User> users = new ArrayList<>();
+        List<Integer> positions = new ArrayList<>();
+        for (int i = 0; i < requests.size(); i++) {
+            if (results[i] != null) {
+                continue;
+            }
+            UserRequest request = requests.get(i);
+            // add() заодно отсекает повтор email внутри самого пакета
+            if (!taken.add(request.getEmail())) {
+                results[i] = BatchUserResult.failure(i, BatchUserResult.Status.CONFLICT,
+                        List.of(new UserAlreadyExistsException(request.getEmail()).getMessage()));
+                continue;
+            }
+            users.add(userMapper.toEntity(request));
+            positions.add(i);
+        }
+
+        List<User> saved = userRepository.saveAll(users);
+        afterBatchWrite(saved, Map.of(), UserEventType.USER_CREATED, KafkaConfig.USER_CREATED_TOPIC);
+        for (int i = 0; i < saved.size(); i++) {
+            results[positions.get(i)] = BatchUserResult.success(positions.get(i), BatchUserResult.Status.CREATED,
+                    userMapper.toResponse(saved.get(i)));
+        }
+        log.info("Batch create: {} of {} users created", saved.size(), requests.size());
+        return List.of(results);
+    }
+
+    /**
+     * Пакетное обновление: пользователи загружаются одним findAllById, занятые email - одним IN-запросом,
+     * UPDATE-ы уходят JDBC-батчами при flush.
+     */
+    @Transactional
+    public List<BatchUserResult> updateUsers(List<UserBatchUpdateRequest> requests) {
+        checkBatchSize(requests.size());
+
+        BatchUserResult[] results = new BatchUserResult[requests.size()];
+        Set<Long> ids = new HashSet<>();
+        for (int i = 0; i < requests.size(); i++) {
+            UserBatchUpdateRequest request = requests.get(i);
+            List<String> errors = validate(request);
+            if (errors.isEmpty() && !ids.add(request.getId())) {
+                errors = List.of("id: пользователь " + request.getId() + " уже обновляется в этом пакете");
+            }
+            if (!errors.isEmpty()) {
+                results[i] = BatchUserResult.failure(i, BatchUserResult.Status.INVALID, errors);
+            }
+        }
+
+        Map<Long, User> users = userRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(User::getId, Function.identity()));
+        Set<String> changedEmails = new HashSet<>();
+        for (int i = 0; i < requests.size(); i++) {
+            User user = users.get(requests.get(i).getId());
+            if (results[i] == null && user != null && !user.getEmail().equals(requests.get(i).getUser().getEmail())) {
+                changedEmails.add(requests.get(i).getUser().getEmail());
+            }
+        }
+        Set<String> taken = changedEmails.isEmpty()
+                ? new HashSet<>()
+                : new HashSet<>(userRepository.findExistingEmails(changedEmails));
+
+        List<User> updated = new ArrayList<>();
+        Map<Long, Integer> positions = new HashMap<>();
+        Map<Long, Integer> previousAges = new HashMap<>();
+        for (int i = 0; i < requests.size(); i++) {
+            if (results[i] != null) {
+                continue;
+            }
+            UserBatchUpdateRequest request = requests.get(i);
+            User user = users.get(request.getId());
+            if (user == null) {
+                results[i] = BatchUserResult.failure(i, BatchUserResult.Status.NOT_FOUND,
+                        List.of(new UserNotFoundException(request.getId()).getMessage()));
+                continue;
+            }
+            String email = request.getUser().getEmail();
+            if (!user.getEmail().equals(email) && !taken.add(email)) {
+                results[i] = BatchUserResult.failure(i, BatchUserResult.Status.CONFLICT,
+                        List.of(new UserAlreadyExistsException(email).getMessage()));
+                continue;
+            }
+            previousAges.put(user.getId(), user.getAge());
+            userMapper.updateFromRequest(request.getUser(), user);
+            updated.add(user);
+            positions.put(user.getId(), i);
+        }
+
+        // flush до маппинга: updatedAt выставляется в @PreUpdate
+        List<User> saved = userRepository.saveAllAndFlush(updated);
+        afterBatchWrite(saved, previousAges, UserEventType.USER_UPDATED, KafkaConfig.USER_UPDATED_TOPIC);
+        for (User user : saved) {
+            int index = positions.get(user.getId());
+            results[index] = BatchUserResult.success(index, BatchUserResult.Status.UPDATED, userMapper.toResponse(user));
+        }
+        log.info("Batch update: {} of {} users updated", saved.size(), requests.size());
+        return List.of(results);
+    }
+
+    private void checkBatchSize(int size) {
+        if (size > batchProperties.getMaxSize()) {
+            throw new BatchSizeExceededException(size, batchProperties.getMaxSize());
+        }
+    }
+
+    private List<String> validate(Object request) {
+        // Validator.validate(null) бросает IllegalArgumentException - пустой элемент пакета просто невалиден
+        if (request == null) {
+            return List.of("элемент пакета не может быть null");
+        }
+        Set<? extends ConstraintViolation<?>> violations = validator.validate(request);
+        return violations.stream()
+                .map(v -> v.getPropertyPath() + ": " + v.getMessage())
+                .sorted()
+                .toList();
+    }
+
+    // То же, что делают одиночные createUser/updateUser: кэш по id, поколение страниц и outbox.
+    // Событие одно на пакет: поколение и инвалидация на других экземплярах меняются один раз, а не на каждого
+    // previousAges - возраст до обновления по id, для созданных пользователей пуст
+    private void afterBatchWrite(List<User> users, Map<Long, Integer> previousAges,
+                                 UserEventType eventType, String topic) {
+        if (users.isEmpty()) {
+            return;
+        }
+        Cache cache = cacheManager.getCache(AppConfig.USERS_BY_ID_CACHE);
+        List<OutboxEvent> events = new ArrayList<>(users.size());
+        List<UserChangedEvent> changes = new ArrayList<>(users.size());
+        for (User user : users) {
+            if (cache != null) {
+                cache.put(user.getId(), userMapper.toResponse(user));
+            }
+            changes.add(new UserChangedEvent(eventType, user.getId(), user.getName(), user.getEmail(),
+                    user.getAge(), previousAges.get(user.getId())));
+            events.add(toOutboxEvent(user, eventType, topic));
+        }
+        eventPublisher.publishEvent(new UsersChangedEvent(changes));
+        outboxEventRepository.saveAll(events);
+    }
 
-    @CircuitBreaker(name = "kafka-producer", fallbackMethod = "fallbackPublishEvent")
-    @Retry(name = "kafka-producer")
-    @TimeLimiter(name = "kafka-producer")
-    public CompletableFuture<Void> publishUserEventAsync(Map<String, Object> payload, String topic) {
-        return CompletableFuture.runAsync(() -> {
-            kafkaTemplate.send(topic, payload);
-            log.info("Published event to topic {}: {}", topic, payload);
-        });
+    // Событие сохраняется в той же транзакции, что и изменение пользователя; публикует OutboxRelay
+    private void enqueueEvent(User user, UserEventType eventType, String topic) {
+        outboxEventRepository.save(toOutboxEvent(user, eventType, topic));
     }
 
-    // Fallback
-    @SuppressWarnings("unused")
-    private CompletableFuture<Void> fallbackPublishEvent(Map<String, Object> payload, String topic, Throwable ex) {
-        log.warn("Fallback publish to topic {} failed: {}. Payload={}", topic, ex.getMessage(), payload);
-        // Здесь можно добавить Outbox/Retry очередь/Dead-letter логику
-        return CompletableFuture.completedFuture(null);
+    private OutboxEvent toOutboxEvent(User user, UserEventType eventType, String topic) {
+        return OutboxEvent.builder()
+                .topic(topic)
+                .aggregateId(user.getId())
+                .eventType(eventType.getEventType())
+                .payload(createUserEvent(user, eventType))
+                .build();
     }
 
-    private Map<String, Object> createUserEvent(User user, UserEventType eventType) {
-        return Map.of(
-                "eventType", eventType.getEventType(),
-                "userId", user.getId(),
-                "userEmail", user.getEmail(),
-                "userName", user.getName(),
-                "timestamp", Instant.now().toString()
-        );
+    private UserEvent createUserEvent(User user, UserEventType eventType) {
+        return new UserEvent(eventType, user.getId(), user.getEmail(), user.getName(), Instant.now());
     }
 }
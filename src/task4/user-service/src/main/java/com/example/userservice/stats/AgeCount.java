@@ -0,0 +1,5 @@
+package com.example.userservice.stats;
+
+// Строка агрегата SELECT age, COUNT(*) ... GROUP BY age
+public record AgeCount(Integer age, Long count) {
+}
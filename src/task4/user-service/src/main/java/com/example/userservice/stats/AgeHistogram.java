@@ -0,0 +1,104 @@
+package com.example.userservice.stats;
+
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * Число пользователей по возрасту (0..100, как ограничения User.age) в дереве Фенвика:
+ * изменение и сумма по диапазону - O(log 101), без обращения к БД.
+ * Чтение оптимистичное (StampedLock): запросы дашбордов не блокируют друг друга и запись.
+ */
+public final class AgeHistogram {
+
+    public static final int MIN_AGE = 0;
+    public static final int MAX_AGE = 100;
+
+    private static final int SIZE = MAX_AGE - MIN_AGE + 1;
+
+    // Индексация с 1, как принято для дерева Фенвика
+    private final long[] tree = new long[SIZE + 1];
+    private final StampedLock lock = new StampedLock();
+
+    public static AgeHistogram of(long[] counts) {
+        if (counts.length != SIZE) {
+            throw new IllegalArgumentException("Expected " + SIZE + " buckets, got " + counts.length);
+        }
+        AgeHistogram histogram = new AgeHistogram();
+        // Построение за O(n): каждый узел передает свою сумму родителю
+        for (int i = 1; i <= SIZE; i++) {
+            histogram.tree[i] += counts[i - 1];
+            int parent = i + (i & -i);
+            if (parent <= SIZE) {
+                histogram.tree[parent] += histogram.tree[i];
+            }
+        }
+        return histogram;
+    }
+
+    public void add(int age, long delta) {
+        checkAge(age);
+        long stamp = lock.writeLock();
+        try {
+            for (int i = age - MIN_AGE + 1; i <= SIZE; i += i & -i) {
+                tree[i] += delta;
+            }
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    // Число пользователей с возрастом в [minAge, maxAge]; границы обрезаются до 0..100
+    public long count(int minAge, int maxAge) {
+        int from = Math.max(minAge, MIN_AGE);
+        int to = Math.min(maxAge, MAX_AGE);
+        if (from > to) {
+            return 0;
+        }
+        long stamp = lock.tryOptimisticRead();
+        long count = prefix(to) - prefix(from - 1);
+        if (!lock.validate(stamp)) {
+            stamp = lock.readLock();
+            try {
+                count = prefix(to) - prefix(from - 1);
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+        return count;
+    }
+
+    public long total() {
+        return count(MIN_AGE, MAX_AGE);
+    }
+
+    // Количество по каждому возрасту, для гистограммы на дашборде
+    public long[] counts() {
+        long[] counts = new long[SIZE];
+        long stamp = lock.readLock();
+        try {
+            long previous = 0;
+            for (int age = MIN_AGE; age <= MAX_AGE; age++) {
+                long current = prefix(age);
+                counts[age - MIN_AGE] = current - previous;
+                previous = current;
+            }
+        } finally {
+            lock.unlockRead(stamp);
+        }
+        return counts;
+    }
+
+    // Сумма по возрастам MIN_AGE..age включительно
+    private long prefix(int age) {
+        long sum = 0;
+        for (int i = age - MIN_AGE + 1; i > 0; i -= i & -i) {
+            sum += tree[i];
+        }
+        return sum;
+    }
+
+    private static void checkAge(int age) {
+        if (age < MIN_AGE || age > MAX_AGE) {
+            throw new IllegalArgumentException("Age " + age + " is out of range " + MIN_AGE + ".." + MAX_AGE);
+        }
+    }
+}
@@ -0,0 +1,138 @@
+package com.example.userservice.stats;
+
+import com.example.userservice.dto.AgeRangeStats;
+import com.example.userservice.events.UserChangedEvent;
+import com.example.userservice.events.UsersChangedEvent;
+import com.example.userservice.repository.UserRepository;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Распределение пользователей по возрасту в памяти: заполняется одним GROUP BY при старте и
+ * обновляется событиями UserChangedEvent после коммита.
+ * Изменения на других экземплярах сюда не попадают (в инвалидации кэша нет возраста), поэтому
+ * гистограмма периодически пересчитывается из БД; расхождение ограничено интервалом пересчета.
+ * События, пришедшие во время пересчета, копятся в pendingDeltas и переносятся в новую гистограмму
+ * при замене, под той же блокировкой, что и их применение.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class AgeStatisticsService {
+
+    private final UserRepository userRepository;
+    private final BulkheadRegistry bulkheadRegistry;
+
+    private volatile AgeHistogram histogram = new AgeHistogram();
+
+    // ReentrantLock, а не synchronized: слушатели событий работают в виртуальных потоках запросов
+    private final ReentrantLock lock = new ReentrantLock();
+    // Не null, пока идет пересчет; под lock
+    private long[] pendingDeltas;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void seedOnStartup() {
+        reseed();
+    }
+
+    @Scheduled(fixedDelayString = "${app.stats.reseed-interval-ms:600000}",
+            initialDelayString = "${app.stats.reseed-interval-ms:600000}")
+    public void reseed() {
+        lock.lock();
+        try {
+            if (pendingDeltas != null) {
+                log.debug("Age histogram reseed already in progress, skipping");
+                return;
+            }
+            pendingDeltas = new long[AgeHistogram.MAX_AGE - AgeHistogram.MIN_AGE + 1];
+        } finally {
+            lock.unlock();
+        }
+
+        long[] counts = new long[AgeHistogram.MAX_AGE - AgeHistogram.MIN_AGE + 1];
+        try {
+            List<AgeCount> rows = bulkheadRegistry.bulkhead("background").executeSupplier(userRepository::countByAge);
+            for (AgeCount row : rows) {
+                if (row.age() != null && row.age() >= AgeHistogram.MIN_AGE && row.age() <= AgeHistogram.MAX_AGE) {
+                    counts[row.age() - AgeHistogram.MIN_AGE] = row.count();
+                }
+            }
+        } catch (RuntimeException e) {
+            lock.lock();
+            try {
+                pendingDeltas = null;
+            } finally {
+                lock.unlock();
+            }
+            if (e instanceof BulkheadFullException) {
+                log.warn("Age histogram reseed skipped: {}", e.getMessage());
+                return;
+            }
+            throw e;
+        }
+
+        lock.lock();
+        try {
+            // Событие, закоммиченное до снимка запроса, но обработанное уже после его начала, учтется дважды
+            // до следующего пересчета; окно - между коммитом и вызовом слушателя в том же потоке
+            for (int i = 0; i < counts.length; i++) {
+                counts[i] += pendingDeltas[i];
+            }
+            histogram = AgeHistogram.of(counts);
+            pendingDeltas = null;
+        } finally {
+            lock.unlock();
+        }
+        log.debug("Age histogram reseeded: {} users", histogram.total());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserChanged(UserChangedEvent event) {
+        if (Objects.equals(event.age(), event.previousAge())) {
+            return;
+        }
+        lock.lock();
+        try {
+            if (event.previousAge() != null) {
+                apply(event.previousAge(), -1);
+            }
+            if (event.age() != null) {
+                apply(event.age(), 1);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void apply(int age, long delta) {
+        histogram.add(age, delta);
+        if (pendingDeltas != null) {
+            pendingDeltas[age - AgeHistogram.MIN_AGE] += delta;
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUsersChanged(UsersChangedEvent event) {
+        event.changes().forEach(this::onUserChanged);
+    }
+
+    public AgeRangeStats countByAgeRange(int minAge, int maxAge) {
+        AgeHistogram current = histogram;
+        return new AgeRangeStats(minAge, maxAge, current.count(minAge, maxAge), current.total());
+    }
+
+    public long[] ageDistribution() {
+        return histogram.counts();
+    }
+}
@@ -0,0 +1,14 @@
+-- Transactional outbox: события пишутся в одной транзакции с изменением users,
+-- OutboxRelay публикует их в Kafka и удаляет опубликованные строки.
+-- Шаг последовательности совпадает с allocationSize = 50 в OutboxEvent
+CREATE SEQUENCE outbox_events_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE outbox_events (
+                               id BIGINT PRIMARY KEY,
+                               topic VARCHAR(100) NOT NULL,
+                               aggregate_id BIGINT NOT NULL,
+                               event_type VARCHAR(50) NOT NULL,
+                               payload JSONB NOT NULL,
+                               attempts INTEGER NOT NULL DEFAULT 0,
+                               created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
@@ -0,0 +1,5 @@
+-- Пакетная вставка: IDENTITY заставляет Hibernate выполнять INSERT по одному, чтобы узнать id.
+-- id берутся из последовательности блоками по 50 (allocationSize = 50 в User), INSERT-ы уходят JDBC-батчами.
+-- Существующие id не меняются: следующий блок начинается после текущего значения последовательности
+ALTER TABLE users ALTER COLUMN id TYPE BIGINT;
+ALTER SEQUENCE users_id_seq AS BIGINT INCREMENT BY 50;
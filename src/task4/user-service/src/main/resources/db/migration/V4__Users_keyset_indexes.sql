@@ -0,0 +1,5 @@
+-- Keyset-пагинация: WHERE (name, id) > (:name, :id) ORDER BY name, id читается по индексу без сортировки.
+-- Второй индекс - для поиска по возрасту с тем же порядком.
+-- CONCURRENTLY не блокирует запись в users; Flyway выполняет такую миграцию вне транзакции
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_users_name_id ON users (name, id);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_users_age_name_id ON users (age, name, id);
@@ -0,0 +1,3 @@
+-- Триграммы для поиска по подстроке (LIKE '%...%'), индексы - в V6.
+-- Отдельная миграция: CREATE EXTENSION транзакционный, а V6 выполняется вне транзакции
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
@@ -0,0 +1,4 @@
+-- GIN-индексы по триграммам для UserRepository.search: lower(name|email) LIKE '%...%'
+-- читается по индексу вместо полного сканирования users (запросы от трех символов)
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_users_name_trgm ON users USING gin (lower(name) gin_trgm_ops);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_users_email_trgm ON users USING gin (lower(email) gin_trgm_ops);
@@ -0,0 +1,3 @@
+-- OutboxEventRepository.lockNextBatch выбирает все события пользователей из окна по aggregate_id;
+-- при накопившемся outbox (брокер недоступен) без индекса это полный просмотр таблицы на каждый опрос
+CREATE INDEX IF NOT EXISTS idx_outbox_events_aggregate_id ON outbox_events (aggregate_id, id);
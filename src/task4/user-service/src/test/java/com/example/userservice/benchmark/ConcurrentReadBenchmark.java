@@ -0,0 +1,144 @@
+package com.example.userservice.benchmark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Всплеск concurrency одновременных GET /users/{id} по синхронному (JPA/Hikari) и реактивному (R2DBC) пути.
+ * Во время всплеска раз в 100 мс опрашивается actuator; выводятся пики занятых соединений, живых потоков
+ * и кучи, время всплеска, p99 и число ответов 503 (bulkhead синхронного пути).
+ * Сервис запускается с app.reactive.enabled=true; для честного сравнения кэш usersById лучше отключить
+ * (app.cache.specs.usersById: maximumSize=0), иначе синхронный путь читает из памяти.
+ *
+ * Запуск: mvn test-compile, затем main() этого класса с тестовым classpath, аргументы
+ * [appUrl] [managementUrl] [concurrency] [maxUserId]; логин и пароль - из LOAD_USER/LOAD_PASSWORD.
+ */
+public class ConcurrentReadBenchmark {
+
+    private static final Map<String, String> METRICS = new LinkedHashMap<>();
+
+    static {
+        METRICS.put("hikari active", "hikaricp.connections.active");
+        METRICS.put("r2dbc acquired", "r2dbc.pool.acquired");
+        METRICS.put("live threads", "jvm.threads.live");
+        METRICS.put("heap used, MB", "jvm.memory.used?tag=area:heap");
+    }
+
+    private final HttpClient client = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofSeconds(10))
+            .executor(Executors.newVirtualThreadPerTaskExecutor())
+            .build();
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final String authorization;
+
+    private ConcurrentReadBenchmark(String authorization) {
+        this.authorization = authorization;
+    }
+
+    public static void main(String[] args) throws Exception {
+        String appUrl = args.length > 0 ? args[0] : "http://localhost:8088/api/api/v1";
+        String managementUrl = args.length > 1 ? args[1] : "http://localhost:8089/actuator";
+        int concurrency = args.length > 2 ? Integer.parseInt(args[2]) : 10_000;
+        long maxUserId = args.length > 3 ? Long.parseLong(args[3]) : 10_000;
+        String credentials = System.getenv().getOrDefault("LOAD_USER", "admin") + ":"
+                + System.getenv().getOrDefault("LOAD_PASSWORD", "admin");
+        ConcurrentReadBenchmark benchmark = new ConcurrentReadBenchmark(
+                "Basic " + Base64.getEncoder().encodeToString(credentials.getBytes(StandardCharsets.UTF_8)));
+
+        for (String path : new String[]{"/users", "/reactive/users"}) {
+            // Прогрев: JIT, пулы соединений, кэш планов
+            benchmark.burst(appUrl + path, managementUrl, Math.min(concurrency, 500), maxUserId);
+            System.out.println(path + ":\n" + benchmark.burst(appUrl + path, managementUrl, concurrency, maxUserId));
+        }
+    }
+
+    private String burst(String baseUrl, String managementUrl, int concurrency, long maxUserId) throws Exception {
+        Map<String, Double> peaks = new LinkedHashMap<>();
+        METRICS.keySet().forEach(name -> peaks.put(name, 0.0));
+        Thread sampler = Thread.ofVirtual().start(() -> {
+            while (!Thread.currentThread().isInterrupted()) {
+                METRICS.forEach((name, metric) -> peaks.merge(name, sample(managementUrl, metric), Math::max));
+                try {
+                    Thread.sleep(100);
+                } catch (InterruptedException e) {
+                    return;
+                }
+            }
+        });
+
+        long[] latencies = new long[concurrency];
+        AtomicInteger rejected = new AtomicInteger();
+        AtomicInteger errors = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        long begin;
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < concurrency; i++) {
+                int index = i;
+                executor.submit(() -> {
+                    HttpRequest request = HttpRequest.newBuilder(
+                                    URI.create(baseUrl + "/" + ThreadLocalRandom.current().nextLong(1, maxUserId + 1)))
+                            .header("Authorization", authorization)
+                            .timeout(Duration.ofSeconds(60))
+                            .build();
+                    start.await();
+                    long requestStart = System.nanoTime();
+                    try {
+                        int status = client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+                        if (status == 503) {
+                            rejected.incrementAndGet();
+                        } else if (status != 200 && status != 404) {
+                            errors.incrementAndGet();
+                        }
+                    } catch (Exception e) {
+                        errors.incrementAndGet();
+                    }
+                    latencies[index] = System.nanoTime() - requestStart;
+                    return null;
+                });
+            }
+            begin = System.nanoTime();
+            start.countDown();
+        }
+        long elapsed = System.nanoTime() - begin;
+        sampler.interrupt();
+        sampler.join();
+
+        Arrays.sort(latencies);
+        StringBuilder report = new StringBuilder(String.format(
+                "  %d requests in %d ms, p99=%.1f ms, 503=%d, errors=%d%n",
+                concurrency, elapsed / 1_000_000, latencies[(int) (concurrency * 0.99) - 1] / 1e6,
+                rejected.get(), errors.get()));
+        peaks.forEach((name, value) -> report.append(String.format("  peak %s: %.0f%n",
+                name, name.endsWith("MB") ? value / (1024 * 1024) : value)));
+        return report.toString();
+    }
+
+    private double sample(String managementUrl, String metric) {
+        try {
+            HttpRequest request = HttpRequest.newBuilder(URI.create(managementUrl + "/metrics/" + metric))
+                    .header("Authorization", authorization)
+                    .build();
+            JsonNode body = objectMapper.readTree(client.send(request, HttpResponse.BodyHandlers.ofString()).body());
+            return body.path("measurements").path(0).path("value").asDouble();
+        } catch (Exception e) {
+            // Метрики нет (пул еще не создан) - считается нулем
+            return 0;
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package com.example.userservice.benchmark;
+
+import com.example.userservice.controller.UserController;
+import com.example.userservice.dto.UserResponse;
+import com.example.userservice.service.HateoasService;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
+
+import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.linkTo;
+import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.methodOn;
+
+/**
+ * Ссылки для страницы из 20 пользователей: прежний linkTo(methodOn(...)) на каждую ссылку,
+ * шаблоны HateoasService и lean-режим без ссылок у элементов.
+ * Результат в мкс на страницу; сериализация в JSON не входит.
+ *
+ * Запуск: mvn test-compile, затем main() этого класса с тестовым classpath.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class HateoasLinkBenchmark {
+
+    private static final int PAGE_SIZE = 20;
+
+    private HateoasService hateoasService;
+    private List<UserResponse> users;
+
+    @Setup
+    public void setUp() {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/users");
+        request.setServerName("users.example.com");
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+        hateoasService = new HateoasService();
+        users = LongStream.rangeClosed(1, PAGE_SIZE)
+                .mapToObj(id -> UserResponse.builder()
+                        .id(id)
+                        .name("User " + id)
+                        .email("user" + id + "@example.com")
+                        .age(30)
+                        .createdAt(LocalDateTime.now())
+                        .build())
+                .toList();
+    }
+
+    @TearDown
+    public void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Benchmark
+    public Page<UserResponse> methodOnProxies() {
+        // Прежняя реализация addLinksToPage, включая копирование ответа
+        return new PageImpl<>(users).map(cached -> {
+            UserResponse user = cached.toBuilder().build();
+            user.add(linkTo(methodOn(UserController.class).getUser(user.getId(), null)).withSelfRel());
+            user.add(linkTo(methodOn(UserController.class).getAllUsers(null, false, null, null)).withRel("all-users"));
+            user.add(linkTo(methodOn(UserController.class).updateUser(user.getId(), null)).withRel("update"));
+            user.add(linkTo(methodOn(UserController.class).deleteUser(user.getId())).withRel("delete"));
+            return user;
+        });
+    }
+
+    @Benchmark
+    public Page<UserResponse> templates() {
+        return hateoasService.addLinksToPage(new PageImpl<>(users), false);
+    }
+
+    @Benchmark
+    public Page<UserResponse> lean() {
+        return hateoasService.addLinksToPage(new PageImpl<>(users), true);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(HateoasLinkBenchmark.class.getSimpleName())
+                .build())
+                .run();
+    }
+}
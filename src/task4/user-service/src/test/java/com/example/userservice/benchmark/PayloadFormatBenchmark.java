@@ -0,0 +1,100 @@
+package com.example.userservice.benchmark;
+
+import com.example.userservice.dto.UserResponse;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.hateoas.Link;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Страница из 20 пользователей со ссылками: JSON против CBOR и Smile, ObjectMapper настроен как в приложении.
+ * Результат в мкс на страницу: сериализация на сервере и разбор в дерево на клиенте.
+ * В @TearDown печатаются размеры, в том числе JSON после gzip (server.compression).
+ *
+ * Запуск: mvn test-compile, затем main() этого класса с тестовым classpath.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class PayloadFormatBenchmark {
+
+    @Param({"json", "cbor", "smile"})
+    public String format;
+
+    private ObjectMapper mapper;
+    private PageImpl<UserResponse> page;
+    private byte[] encoded;
+
+    @Setup
+    public void setUp() throws IOException {
+        Jackson2ObjectMapperBuilder builder = Jackson2ObjectMapperBuilder.json();
+        mapper = switch (format) {
+            case "cbor" -> builder.factory(new CBORFactory()).build();
+            case "smile" -> builder.factory(new SmileFactory()).build();
+            default -> builder.build();
+        };
+        LocalDateTime now = LocalDateTime.now();
+        List<UserResponse> users = LongStream.rangeClosed(1, 20)
+                .mapToObj(id -> {
+                    UserResponse user = UserResponse.builder()
+                            .id(id)
+                            .name("User " + id)
+                            .email("user" + id + "@example.com")
+                            .age(30)
+                            .createdAt(now)
+                            .updatedAt(now)
+                            .build();
+                    user.add(Link.of("http://localhost:8088/api/api/v1/users/" + id));
+                    user.add(Link.of("http://localhost:8088/api/api/v1/users", "all-users"));
+                    return user;
+                })
+                .toList();
+        page = new PageImpl<>(users, PageRequest.of(0, 20), 10_000);
+        encoded = mapper.writeValueAsBytes(page);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(compressed)) {
+            gzip.write(encoded);
+        }
+        System.out.printf("%nРазмер %s: %d байт, после gzip %d байт%n", format, encoded.length, compressed.size());
+    }
+
+    @Benchmark
+    public byte[] serialize() throws IOException {
+        return mapper.writeValueAsBytes(page);
+    }
+
+    @Benchmark
+    public JsonNode parse() throws IOException {
+        return mapper.readTree(encoded);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(PayloadFormatBenchmark.class.getSimpleName())
+                .build())
+                .run();
+    }
+}
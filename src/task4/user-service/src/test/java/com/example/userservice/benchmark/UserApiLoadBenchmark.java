@@ -0,0 +1,143 @@
+package com.example.userservice.benchmark;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Нагрузочный тест запущенного user-service: concurrency клиентов в замкнутом цикле читают
+ * GET /users/{id} и GET /users?page= в течение duration секунд, затем выводятся пропускная способность,
+ * p50/p99/max и число ответов 503 от bulkhead.
+ * Для сравнения сервис запускается дважды:
+ * --spring.threads.virtual.enabled=false (пул Tomcat, 200 потоков) и =true; concurrency берется
+ * заметно больше 200, иначе разницы не будет.
+ *
+ * Запуск: mvn test-compile, затем main() этого класса с тестовым classpath, аргументы
+ * [baseUrl] [concurrency] [durationSeconds] [maxUserId]; логин и пароль - из LOAD_USER/LOAD_PASSWORD.
+ */
+public class UserApiLoadBenchmark {
+
+    private static final int WARMUP_SECONDS = 10;
+
+    public static void main(String[] args) throws Exception {
+        String baseUrl = args.length > 0 ? args[0] : "http://localhost:8088/api/api/v1/users";
+        int concurrency = args.length > 1 ? Integer.parseInt(args[1]) : 1000;
+        int durationSeconds = args.length > 2 ? Integer.parseInt(args[2]) : 60;
+        long maxUserId = args.length > 3 ? Long.parseLong(args[3]) : 10_000;
+        String credentials = System.getenv().getOrDefault("LOAD_USER", "admin") + ":"
+                + System.getenv().getOrDefault("LOAD_PASSWORD", "admin");
+        String authorization = "Basic " + Base64.getEncoder().encodeToString(credentials.getBytes(StandardCharsets.UTF_8));
+
+        HttpClient client = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofSeconds(5))
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .build();
+
+        System.out.printf("Warmup %d s...%n", WARMUP_SECONDS);
+        run(client, baseUrl, authorization, concurrency, WARMUP_SECONDS, maxUserId);
+        Result result = run(client, baseUrl, authorization, concurrency, durationSeconds, maxUserId);
+        System.out.println(result.format(durationSeconds, concurrency));
+    }
+
+    private static Result run(HttpClient client, String baseUrl, String authorization,
+                              int concurrency, int durationSeconds, long maxUserId) throws Exception {
+        long deadline = System.nanoTime() + Duration.ofSeconds(durationSeconds).toNanos();
+        List<Future<Result>> workers = new ArrayList<>(concurrency);
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < concurrency; i++) {
+                workers.add(executor.submit(() -> worker(client, baseUrl, authorization, deadline, maxUserId)));
+            }
+        }
+        Result total = new Result();
+        for (Future<Result> worker : workers) {
+            total.merge(worker.get());
+        }
+        return total;
+    }
+
+    private static Result worker(HttpClient client, String baseUrl, String authorization,
+                                 long deadline, long maxUserId) {
+        Result result = new Result();
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        while (System.nanoTime() < deadline) {
+            // 80% чтений по id, 20% страниц списка
+            String uri = random.nextInt(5) > 0
+                    ? baseUrl + "/" + random.nextLong(1, maxUserId + 1)
+                    : baseUrl + "?page=" + random.nextInt(50) + "&size=20&lean=true";
+            HttpRequest request = HttpRequest.newBuilder(URI.create(uri))
+                    .header("Authorization", authorization)
+                    .timeout(Duration.ofSeconds(30))
+                    .GET()
+                    .build();
+            long start = System.nanoTime();
+            int status;
+            try {
+                status = client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+            } catch (Exception e) {
+                status = -1;
+            }
+            result.record(System.nanoTime() - start, status);
+        }
+        return result;
+    }
+
+    private static final class Result {
+        private long[] latencies = new long[1024];
+        private int count;
+        private long rejected;
+        private long errors;
+
+        void record(long latencyNanos, int status) {
+            if (count == latencies.length) {
+                latencies = Arrays.copyOf(latencies, count * 2);
+            }
+            latencies[count++] = latencyNanos;
+            if (status == 503) {
+                rejected++;
+            } else if (status < 200 || (status >= 300 && status != 404)) {
+                errors++;
+            }
+        }
+
+        void merge(Result other) {
+            if (count + other.count > latencies.length) {
+                latencies = Arrays.copyOf(latencies, count + other.count);
+            }
+            System.arraycopy(other.latencies, 0, latencies, count, other.count);
+            count += other.count;
+            rejected += other.rejected;
+            errors += other.errors;
+        }
+
+        String format(int durationSeconds, int concurrency) {
+            long[] sorted = Arrays.copyOf(latencies, count);
+            Arrays.sort(sorted);
+            return String.format("""
+                            concurrency=%d, requests=%d, throughput=%.0f req/s
+                            latency p50=%.1f ms, p99=%.1f ms, max=%.1f ms
+                            503 (bulkhead)=%d, other errors=%d""",
+                    concurrency, count, (double) count / durationSeconds,
+                    percentile(sorted, 0.50), percentile(sorted, 0.99),
+                    count == 0 ? 0.0 : sorted[count - 1] / 1e6,
+                    rejected, errors);
+        }
+
+        private static double percentile(long[] sorted, double quantile) {
+            if (sorted.length == 0) {
+                return 0;
+            }
+            return sorted[(int) Math.min(sorted.length - 1, Math.ceil(quantile * sorted.length) - 1)] / 1e6;
+        }
+    }
+}
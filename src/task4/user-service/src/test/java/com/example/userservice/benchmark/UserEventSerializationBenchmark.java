@@ -0,0 +1,87 @@
+package com.example.userservice.benchmark;
+
+import com.example.userservice.dto.UserEvent;
+import com.example.userservice.events.UserEventCodec;
+import com.example.userservice.events.UserEventSerializer;
+import com.example.userservice.events.UserEventType;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.kafka.support.serializer.JsonSerializer;
+
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Сериализация события пользователя: прежний Map + JsonSerializer против UserEvent + UserEventCodec.
+ * Результат в ops/s - сколько событий в секунду успевает подготовить один поток продюсера.
+ * Сквозную пропускную способность с брокером (linger/batch/lz4) меряет kafka-producer-perf-test.
+ *
+ * Запуск: mvn test-compile, затем main() этого класса с тестовым classpath.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class UserEventSerializationBenchmark {
+
+    private static final String TOPIC = "user-created";
+
+    private Map<String, Object> mapEvent;
+    private UserEvent typedEvent;
+    private JsonSerializer<Object> jsonSerializer;
+    private UserEventSerializer binarySerializer;
+
+    @Setup
+    public void setUp() {
+        Instant now = Instant.now();
+        mapEvent = Map.of(
+                "eventType", UserEventType.USER_CREATED.getEventType(),
+                "userId", 123_456L,
+                "userEmail", "john.doe@example.com",
+                "userName", "John Doe",
+                "timestamp", now.toString());
+        typedEvent = new UserEvent(UserEventType.USER_CREATED, 123_456L, "john.doe@example.com", "John Doe", now);
+        jsonSerializer = new JsonSerializer<>();
+        binarySerializer = new UserEventSerializer();
+    }
+
+    @TearDown
+    public void tearDown() {
+        System.out.printf("%nРазмер: json(map)=%d байт, json(record)=%d байт, binary=%d байт%n",
+                jsonSerializer.serialize(TOPIC, mapEvent).length,
+                jsonSerializer.serialize(TOPIC, typedEvent).length,
+                UserEventCodec.encode(typedEvent).length);
+    }
+
+    @Benchmark
+    public byte[] jsonMap() {
+        return jsonSerializer.serialize(TOPIC, mapEvent);
+    }
+
+    @Benchmark
+    public byte[] jsonRecord() {
+        return jsonSerializer.serialize(TOPIC, typedEvent);
+    }
+
+    @Benchmark
+    public byte[] binaryCodec() {
+        return binarySerializer.serialize(TOPIC, typedEvent);
+    }
+
+    @Benchmark
+    public UserEvent binaryRoundTrip() {
+        return UserEventCodec.decode(binarySerializer.serialize(TOPIC, typedEvent));
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(UserEventSerializationBenchmark.class.getSimpleName())
+                .build())
+                .run();
+    }
+}
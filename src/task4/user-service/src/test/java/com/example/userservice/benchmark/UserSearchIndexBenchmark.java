@@ -0,0 +1,103 @@
+package com.example.userservice.benchmark;
+
+import com.example.userservice.dto.UserSuggestion;
+import com.example.userservice.search.UserSearchIndex;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.lang.management.ManagementFactory;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Задержка подсказок и занимаемая память индекса UserSearchIndex на синтетических пользователях.
+ * Память печатается при подготовке каждого набора: занятая куча после полной сборки мусора до и после
+ * загрузки, плюс UserSearchIndex.Stats. Для 10M пользователей индекс занимает около 1.8 ГБ кучи.
+ *
+ * Запуск: mvn test-compile, затем main() этого класса с тестовым classpath.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+@State(Scope.Benchmark)
+public class UserSearchIndexBenchmark {
+
+    private static final String[] FIRST_NAMES = {
+            "james", "mary", "robert", "patricia", "john", "jennifer", "michael", "linda", "david", "elizabeth",
+            "william", "barbara", "richard", "susan", "joseph", "jessica", "thomas", "sarah", "charles", "karen",
+            "ivan", "olga", "dmitry", "anna", "sergey", "elena", "alexey", "maria", "andrey", "natalia"};
+    private static final String[] LAST_NAMES = {
+            "smith", "johnson", "williams", "brown", "jones", "garcia", "miller", "davis", "rodriguez", "martinez",
+            "ivanov", "petrov", "sidorov", "smirnov", "kuznetsov", "popov", "vasiliev", "sokolov", "mikhailov",
+            "novikov", "fedorov", "morozov", "volkov", "alekseev", "lebedev", "semenov", "egorov", "pavlov"};
+    private static final String[] DOMAINS = {"gmail.com", "yandex.ru", "mail.ru", "outlook.com", "example.com"};
+
+    @Param({"1000000", "10000000"})
+    private int users;
+
+    private UserSearchIndex index;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        long before = usedHeap();
+        long start = System.nanoTime();
+        index = new UserSearchIndex(users, 1_000, 0.5, 0.3);
+        Random random = new Random(42);
+        for (long id = 1; id <= users; id++) {
+            String first = FIRST_NAMES[random.nextInt(FIRST_NAMES.length)];
+            String last = LAST_NAMES[random.nextInt(LAST_NAMES.length)];
+            String name = capitalize(first) + " " + capitalize(last);
+            String email = first + "." + last + id + "@" + DOMAINS[random.nextInt(DOMAINS.length)];
+            index.putIfAbsent(id, name, email);
+        }
+        index.trim();
+        long buildMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        long after = usedHeap();
+        System.out.printf("%n%d users: built in %d ms, heap %d MB (%.1f bytes/user), %s%n",
+                users, buildMillis, (after - before) >> 20, (double) (after - before) / users, index.stats());
+    }
+
+    @Benchmark
+    public List<UserSuggestion> namePrefix() {
+        return index.suggest("ma", 10);
+    }
+
+    @Benchmark
+    public List<UserSuggestion> substring() {
+        return index.suggest("kuzne", 10);
+    }
+
+    // Редкое сочетание: пересечение списков отсекает почти всех кандидатов
+    @Benchmark
+    public List<UserSuggestion> emailWithId() {
+        return index.suggest("petrov12345", 10);
+    }
+
+    @Benchmark
+    public List<UserSuggestion> fuzzy() {
+        return index.suggest("kuznetzov", 10);
+    }
+
+    private static String capitalize(String value) {
+        return Character.toUpperCase(value.charAt(0)) + value.substring(1);
+    }
+
+    private static long usedHeap() {
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(UserSearchIndexBenchmark.class.getSimpleName())
+                .build())
+                .run();
+    }
+}
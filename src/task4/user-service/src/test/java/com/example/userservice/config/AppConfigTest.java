@@ -0,0 +1,74 @@
+package com.example.userservice.config;
+
+import com.example.userservice.dto.UserResponse;
+import com.example.userservice.mapper.UserMapper;
+import com.example.userservice.model.User;
+import com.example.userservice.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AppConfigTest {
+
+    private static final Long ID = 1L;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private UserMapper userMapper;
+
+    private CacheManager cacheManager(boolean async) {
+        CacheSpecProperties properties = new CacheSpecProperties();
+        properties.setAsync(async);
+        properties.getSpecs().put(AppConfig.USERS_BY_ID_CACHE, "maximumSize=10,refreshAfterWrite=1m");
+        return new AppConfig().cacheManager(properties, userRepository, userMapper, Runnable::run);
+    }
+
+    @ParameterizedTest
+    @ValueSource(booleans = {true, false})
+    void usersById_OnMiss_ShouldLoadFromRepository(boolean async) {
+        User user = User.builder().id(ID).name("John").email("john@test.com").age(30).build();
+        UserResponse response = UserResponse.builder().id(ID).name("John").email("john@test.com").age(30).build();
+        when(userRepository.findById(ID)).thenReturn(Optional.of(user));
+        when(userMapper.toResponse(user)).thenReturn(response);
+
+        Cache cache = cacheManager(async).getCache(AppConfig.USERS_BY_ID_CACHE);
+
+        assertEquals(response, cache.get(ID, UserResponse.class));
+        assertEquals(response, cache.get(ID, UserResponse.class));
+        verify(userRepository, times(1)).findById(ID);
+    }
+
+    @Test
+    void usersById_MissingUser_ShouldNotCacheAnything() {
+        when(userRepository.findById(ID)).thenReturn(Optional.empty());
+
+        Cache cache = cacheManager(true).getCache(AppConfig.USERS_BY_ID_CACHE);
+
+        assertNull(cache.get(ID));
+    }
+
+    @Test
+    void unknownCacheName_ShouldNotBeCreated() {
+        assertNull(cacheManager(true).getCache("users"));
+    }
+
+    @Test
+    void specFor_WithoutOwnSpec_ShouldFallBackToDefault() {
+        CacheSpecProperties properties = new CacheSpecProperties();
+
+        assertEquals(properties.getDefaultSpec(), properties.specFor(AppConfig.USER_PAGES_CACHE));
+    }
+}
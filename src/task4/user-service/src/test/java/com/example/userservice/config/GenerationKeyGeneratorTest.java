@@ -0,0 +1,58 @@
+package com.example.userservice.config;
+
+import com.example.userservice.events.UserChangedEvent;
+import com.example.userservice.events.UserEventType;
+import com.example.userservice.events.UsersChangedEvent;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+import java.lang.reflect.Method;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GenerationKeyGeneratorTest {
+
+    private final GenerationKeyGenerator keyGenerator = new GenerationKeyGenerator();
+
+    private static Method method() throws NoSuchMethodException {
+        return Object.class.getMethod("toString");
+    }
+
+    @Test
+    void generate_SameArguments_ShouldProduceEqualKeys() throws Exception {
+        Object first = keyGenerator.generate(this, method(), PageRequest.of(0, 20, Sort.by("name")));
+        Object second = keyGenerator.generate(this, method(), PageRequest.of(0, 20, Sort.by("name")));
+
+        assertEquals(first, second);
+    }
+
+    @Test
+    void generate_DifferentSort_ShouldProduceDifferentKeys() throws Exception {
+        Object byName = keyGenerator.generate(this, method(), PageRequest.of(0, 20, Sort.by("name")));
+        Object byAge = keyGenerator.generate(this, method(), PageRequest.of(0, 20, Sort.by("age")));
+
+        assertNotEquals(byName, byAge);
+    }
+
+    @Test
+    void onUserChanged_ShouldMoveToNextGeneration() throws Exception {
+        Object before = keyGenerator.generate(this, method(), PageRequest.of(0, 20));
+
+        keyGenerator.onUserChanged(new UserChangedEvent(UserEventType.USER_UPDATED, 1L));
+
+        assertNotEquals(before, keyGenerator.generate(this, method(), PageRequest.of(0, 20)));
+        assertEquals(1, keyGenerator.currentGeneration());
+    }
+
+    @Test
+    void onUsersChanged_WholeBatch_ShouldMoveGenerationOnce() {
+        keyGenerator.onUsersChanged(new UsersChangedEvent(List.of(
+                new UserChangedEvent(UserEventType.USER_CREATED, 1L),
+                new UserChangedEvent(UserEventType.USER_CREATED, 2L),
+                new UserChangedEvent(UserEventType.USER_CREATED, 3L))));
+
+        assertEquals(1, keyGenerator.currentGeneration());
+    }
+}
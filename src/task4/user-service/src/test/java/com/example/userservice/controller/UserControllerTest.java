@@ -1,29 +1,48 @@
 package com.example.userservice.controller;
 
+import com.example.userservice.config.GenerationKeyGenerator;
+import com.example.userservice.dto.BatchUserResult;
+import com.example.userservice.dto.CursorPage;
 import com.example.userservice.dto.UserRequest;
 import com.example.userservice.dto.UserResponse;
+import com.example.userservice.exception.BatchSizeExceededException;
 import com.example.userservice.exception.GlobalExceptionHandler;
+import com.example.userservice.exception.InvalidCursorException;
 import com.example.userservice.exception.UserAlreadyExistsException;
 import com.example.userservice.exception.UserNotFoundException;
+import com.example.userservice.service.ETagService;
 import com.example.userservice.service.HateoasService;
+import com.example.userservice.service.UserExportService;
 import com.example.userservice.service.UserService;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.accept.ContentNegotiationManager;
 
 import java.time.LocalDateTime;
+import java.util.List;
 
+import static org.hamcrest.Matchers.endsWith;
+import static org.hamcrest.Matchers.not;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.BDDMockito.given;
 import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
@@ -45,6 +64,12 @@ class UserControllerTest {
     @Mock
     private HateoasService hateoasService;
 
+    @Mock
+    private UserExportService userExportService;
+
+    @Spy
+    private ETagService eTagService = new ETagService(new GenerationKeyGenerator(), new ContentNegotiationManager());
+
     @InjectMocks
     private UserController userController;
 
@@ -136,6 +161,68 @@ class UserControllerTest {
                 .andExpect(jsonPath("$.name").value(NAME));
     }
 
+    @Test
+    void getUserById_WithMatchingETag_ShouldReturn304WithoutLinks() throws Exception {
+        UserResponse response = buildUserResponse(USER_ID, NAME, EMAIL, AGE);
+
+        given(userService.getUserById(USER_ID)).willReturn(response);
+        given(hateoasService.addLinksToUser(any(UserResponse.class))).willAnswer(inv -> inv.getArgument(0));
+
+        String etag = mockMvc.perform(get(BASE_URL + "/{id}", USER_ID))
+                .andExpect(status().isOk())
+                .andExpect(header().exists("Last-Modified"))
+                .andReturn().getResponse().getHeader("ETag");
+
+        mockMvc.perform(get(BASE_URL + "/{id}", USER_ID).header("If-None-Match", etag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.VARY, HttpHeaders.ACCEPT))
+                .andExpect(content().string(""));
+        verify(hateoasService, times(1)).addLinksToUser(any(UserResponse.class));
+    }
+
+    @Test
+    void getUsersByCursor_WithMatchingETag_ShouldNotQueryService() throws Exception {
+        given(userService.getUsersAfter(null, 20)).willReturn(new CursorPage<>(List.of(), 20, null, false));
+
+        String etag = mockMvc.perform(get(BASE_URL + "/cursor"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader("ETag");
+
+        mockMvc.perform(get(BASE_URL + "/cursor").header("If-None-Match", etag))
+                .andExpect(status().isNotModified());
+        verify(userService, times(1)).getUsersAfter(null, 20);
+    }
+
+    @Test
+    void getUserById_AcceptCbor_ShouldReturnCbor() throws Exception {
+        UserResponse response = buildUserResponse(USER_ID, NAME, EMAIL, AGE);
+
+        given(userService.getUserById(USER_ID)).willReturn(response);
+        given(hateoasService.addLinksToUser(any(UserResponse.class))).willAnswer(inv -> inv.getArgument(0));
+
+        mockMvc.perform(get(BASE_URL + "/{id}", USER_ID).accept(MediaType.APPLICATION_CBOR))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_CBOR))
+                .andExpect(header().string("ETag", endsWith("-cbor\"")))
+                .andExpect(header().string(HttpHeaders.VARY, HttpHeaders.ACCEPT));
+    }
+
+    @Test
+    void getUserById_CborWithLowerQuality_ShouldTagSelectedJson() throws Exception {
+        UserResponse response = buildUserResponse(USER_ID, NAME, EMAIL, AGE);
+
+        given(userService.getUserById(USER_ID)).willReturn(response);
+        given(hateoasService.addLinksToUser(any(UserResponse.class))).willAnswer(inv -> inv.getArgument(0));
+
+        // Подстрока application/cbor в Accept есть, но выбран JSON
+        mockMvc.perform(get(BASE_URL + "/{id}", USER_ID)
+                        .header(HttpHeaders.ACCEPT, "application/json, application/cbor;q=0.5"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON))
+                .andExpect(header().string("ETag", not(endsWith("-cbor\""))))
+                .andExpect(header().string(HttpHeaders.VARY, HttpHeaders.ACCEPT));
+    }
+
     @Test
     void deleteUser_ShouldReturnNoContent() throws Exception {
         doNothing().when(userService).deleteUser(USER_ID);
@@ -156,4 +243,84 @@ class UserControllerTest {
                         .content(objectMapper.writeValueAsString(request)))
                 .andExpect(status().isConflict());
     }
+
+    @Test
+    void createUsers_ShouldReturnPerItemResults() throws Exception {
+        List<UserRequest> requests = List.of(
+                buildUserRequest(NAME, EMAIL, AGE),
+                buildUserRequest(NAME, EMAIL, AGE));
+        List<BatchUserResult> results = List.of(
+                BatchUserResult.success(0, BatchUserResult.Status.CREATED, buildUserResponse(USER_ID, NAME, EMAIL, AGE)),
+                BatchUserResult.failure(1, BatchUserResult.Status.CONFLICT, List.of("duplicate")));
+
+        given(userService.createUsers(anyList())).willReturn(results);
+
+        mockMvc.perform(post(BASE_URL + "/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(requests)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].status").value("CREATED"))
+                .andExpect(jsonPath("$[0].user.id").value(USER_ID))
+                .andExpect(jsonPath("$[1].status").value("CONFLICT"))
+                .andExpect(jsonPath("$[1].errors[0]").value("duplicate"));
+    }
+
+    @Test
+    void createUsers_TooLarge_ShouldReturn413() throws Exception {
+        given(userService.createUsers(anyList())).willThrow(new BatchSizeExceededException(2, 1));
+
+        mockMvc.perform(post(BASE_URL + "/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(List.of(
+                                buildUserRequest(NAME, EMAIL, AGE),
+                                buildUserRequest(NAME, EMAIL, AGE)))))
+                .andExpect(status().isPayloadTooLarge());
+    }
+
+    @Test
+    void getUsersByCursor_ShouldReturnNextCursor() throws Exception {
+        CursorPage<UserResponse> page = new CursorPage<>(
+                List.of(buildUserResponse(USER_ID, NAME, EMAIL, AGE)), 1, "next", true);
+
+        given(userService.getUsersAfter(null, 1)).willReturn(page);
+
+        mockMvc.perform(get(BASE_URL + "/cursor").param("size", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].id").value(USER_ID))
+                .andExpect(jsonPath("$.nextCursor").value("next"))
+                .andExpect(jsonPath("$.hasNext").value(true));
+    }
+
+    @Test
+    void getUsersByCursor_InvalidCursor_ShouldReturn400() throws Exception {
+        given(userService.getUsersAfter("bad", 20)).willThrow(new InvalidCursorException("bad"));
+
+        mockMvc.perform(get(BASE_URL + "/cursor").param("cursor", "bad"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void searchUsers_TooShortQuery_ShouldReturn400() throws Exception {
+        mockMvc.perform(get(BASE_URL + "/search").param("q", "jo"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void exportUsers_BulkheadFull_ShouldReturn503ProblemBeforeStreaming() throws Exception {
+        given(userExportService.open(eq(UserExportService.Format.CSV), eq(0), eq(100), any()))
+                .willThrow(BulkheadFullException.createBulkheadFullException(Bulkhead.ofDefaults("export")));
+
+        mockMvc.perform(get(BASE_URL + "/export").param("format", "csv"))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string(HttpHeaders.RETRY_AFTER, "1"))
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_PROBLEM_JSON))
+                .andExpect(header().doesNotExist(HttpHeaders.CONTENT_DISPOSITION));
+    }
+
+    @Test
+    void exportUsers_UnknownFormat_ShouldReturn400() throws Exception {
+        mockMvc.perform(get(BASE_URL + "/export").param("format", "xml"))
+                .andExpect(status().isBadRequest());
+        verifyNoInteractions(userExportService);
+    }
 }
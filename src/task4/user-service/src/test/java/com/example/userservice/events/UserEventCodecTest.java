@@ -0,0 +1,81 @@
+package com.example.userservice.events;
+
+import com.example.userservice.dto.UserEvent;
+import org.apache.kafka.common.errors.SerializationException;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UserEventCodecTest {
+
+    private static final Instant TIMESTAMP = Instant.parse("2025-01-15T10:15:30.123Z");
+
+    @Test
+    void encodeDecode_ShouldRoundTrip() {
+        UserEvent event = new UserEvent(UserEventType.USER_UPDATED, 123_456_789L, "иван@пример.рф", "Иван", TIMESTAMP);
+
+        assertEquals(event, UserEventCodec.decode(UserEventCodec.encode(event)));
+    }
+
+    @Test
+    void encode_NullStrings_ShouldRoundTripAsNull() {
+        UserEvent event = new UserEvent(UserEventType.USER_DELETED, 1L, null, null, TIMESTAMP);
+
+        UserEvent decoded = UserEventCodec.decode(UserEventCodec.encode(event));
+
+        assertNull(decoded.userEmail());
+        assertNull(decoded.userName());
+    }
+
+    @Test
+    void encode_EmptyStrings_ShouldStayEmpty() {
+        UserEvent event = new UserEvent(UserEventType.USER_UPDATED, 1L, "", "", TIMESTAMP);
+
+        assertEquals(event, UserEventCodec.decode(UserEventCodec.encode(event)));
+    }
+
+    @Test
+    void decode_LegacyVersion_ShouldReadStringsWithoutNullFlag() {
+        // версия 1, USER_CREATED, id 42, время 0, email "a@b", пустое имя
+        byte[] legacy = {UserEventCodec.LEGACY_FORMAT_VERSION, UserEventType.USER_CREATED.getCode(), 42, 0,
+                3, 'a', '@', 'b', 0};
+
+        UserEvent decoded = UserEventCodec.decode(legacy);
+
+        assertEquals("a@b", decoded.userEmail());
+        assertEquals("", decoded.userName());
+    }
+
+    @Test
+    void encode_ShouldBeSmallerThanJson() {
+        UserEvent event = new UserEvent(UserEventType.USER_CREATED, 42L, "john@test.com", "John", TIMESTAMP);
+
+        // версия + тип + id (1) + время (6) + две строки с длинами
+        assertEquals(2 + 1 + 6 + 1 + 13 + 1 + 4, UserEventCodec.encode(event).length);
+    }
+
+    @Test
+    void deserializer_TruncatedPayload_ShouldThrowSerializationException() {
+        byte[] encoded = UserEventCodec.encode(new UserEvent(UserEventType.USER_CREATED, 42L, "john@test.com", "John", TIMESTAMP));
+
+        assertThrows(SerializationException.class,
+                () -> new UserEventDeserializer().deserialize("user-created", Arrays.copyOf(encoded, encoded.length - 3)));
+    }
+
+    @Test
+    void decode_StringLengthOverflowingLong_ShouldThrowIllegalArgument() {
+        // версия 2, USER_CREATED, id 42, время 0, длина email - varint 2^64 - 1, то есть -1L
+        byte[] payload = {UserEventCodec.FORMAT_VERSION, UserEventType.USER_CREATED.getCode(), 42, 0,
+                -1, -1, -1, -1, -1, -1, -1, -1, -1, 1, 'a'};
+
+        assertThrows(IllegalArgumentException.class, () -> UserEventCodec.decode(payload));
+    }
+
+    @Test
+    void decode_UnknownVersion_ShouldThrow() {
+        assertThrows(IllegalArgumentException.class, () -> UserEventCodec.decode(new byte[]{99, 1, 1, 1, 0, 0}));
+    }
+}
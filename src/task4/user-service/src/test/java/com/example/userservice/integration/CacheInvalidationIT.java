@@ -0,0 +1,129 @@
+package com.example.userservice.integration;
+
+import com.example.userservice.cache.CacheInvalidationListener;
+import com.example.userservice.cache.CacheInvalidationPublisher;
+import com.example.userservice.config.AppConfig;
+import com.example.userservice.config.GenerationKeyGenerator;
+import com.example.userservice.config.KafkaConfig;
+import com.example.userservice.events.UserChangedEvent;
+import com.example.userservice.events.UserEventType;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.kafka.KafkaAutoConfiguration;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.kafka.config.KafkaListenerEndpointRegistry;
+import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.test.EmbeddedKafkaBroker;
+import org.springframework.kafka.test.context.EmbeddedKafka;
+import org.springframework.kafka.test.utils.ContainerTestUtils;
+import org.springframework.kafka.test.utils.KafkaTestUtils;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@SpringBootTest(
+        classes = {CacheInvalidationPublisher.class, CacheInvalidationListener.class, GenerationKeyGenerator.class},
+        properties = {
+                "spring.kafka.bootstrap-servers=${spring.embedded.kafka.brokers}",
+                "spring.cloud.config.enabled=false"
+        })
+@ImportAutoConfiguration(KafkaAutoConfiguration.class)
+@EmbeddedKafka(partitions = 1, topics = KafkaConfig.USER_CACHE_INVALIDATION_TOPIC)
+class CacheInvalidationIT {
+
+    private static final Long USER_ID = 42L;
+
+    @Autowired
+    private EmbeddedKafkaBroker broker;
+
+    @Autowired
+    private CacheInvalidationPublisher publisher;
+
+    @Autowired
+    private GenerationKeyGenerator generationKeyGenerator;
+
+    @Autowired
+    private KafkaTemplate<Object, Object> kafkaTemplate;
+
+    @Autowired
+    private KafkaListenerEndpointRegistry registry;
+
+    @MockitoBean
+    private CacheManager cacheManager;
+
+    private final Cache usersById = mock(Cache.class);
+
+    @BeforeEach
+    void setUp() {
+        when(cacheManager.getCache(AppConfig.USERS_BY_ID_CACHE)).thenReturn(usersById);
+        // Слушатель читает с конца топика - дожидаемся назначения партиции
+        registry.getListenerContainers()
+                .forEach(container -> ContainerTestUtils.waitForAssignment(container, broker.getPartitionsPerTopic()));
+    }
+
+    @Test
+    void publisher_ShouldSendUserIdKeyVersionAndOrigin() {
+        try (Consumer<String, String> consumer = new DefaultKafkaConsumerFactory<>(
+                KafkaTestUtils.consumerProps("verifier", "false", broker),
+                new StringDeserializer(), new StringDeserializer()).createConsumer()) {
+            broker.consumeFromAnEmbeddedTopic(consumer, KafkaConfig.USER_CACHE_INVALIDATION_TOPIC);
+
+            publisher.onUserChanged(new UserChangedEvent(UserEventType.USER_UPDATED, USER_ID));
+
+            ConsumerRecord<String, String> record = KafkaTestUtils.getSingleRecord(
+                    consumer, KafkaConfig.USER_CACHE_INVALIDATION_TOPIC, Duration.ofSeconds(10));
+            assertEquals(USER_ID.toString(), record.key());
+            assertTrue(Long.parseLong(record.value()) > 0);
+            assertEquals(publisher.getInstanceId(), new String(
+                    record.headers().lastHeader(CacheInvalidationPublisher.ORIGIN_HEADER).value(), StandardCharsets.UTF_8));
+        }
+    }
+
+    @Test
+    void listener_MessageFromAnotherInstance_ShouldEvictAndBumpGeneration() {
+        long generationBefore = generationKeyGenerator.currentGeneration();
+        ProducerRecord<Object, Object> record = new ProducerRecord<>(
+                KafkaConfig.USER_CACHE_INVALIDATION_TOPIC, USER_ID.toString(), "1");
+        record.headers().add(CacheInvalidationPublisher.ORIGIN_HEADER, "other-instance".getBytes(StandardCharsets.UTF_8));
+
+        kafkaTemplate.send(record);
+
+        verify(usersById, timeout(10_000)).evict(USER_ID);
+        assertTrue(generationKeyGenerator.currentGeneration() > generationBefore);
+    }
+
+    @Test
+    void listener_BatchFromAnotherInstance_ShouldEvictAllAndBumpGenerationOnce() {
+        long generationBefore = generationKeyGenerator.currentGeneration();
+        ProducerRecord<Object, Object> record = new ProducerRecord<>(
+                KafkaConfig.USER_CACHE_INVALIDATION_TOPIC, "batch-other-instance", "1");
+        record.headers().add(CacheInvalidationPublisher.ORIGIN_HEADER, "other-instance".getBytes(StandardCharsets.UTF_8));
+        record.headers().add(CacheInvalidationPublisher.USER_IDS_HEADER, "42,43".getBytes(StandardCharsets.UTF_8));
+
+        kafkaTemplate.send(record);
+
+        verify(usersById, timeout(10_000)).evict(43L);
+        verify(usersById).evict(USER_ID);
+        assertEquals(generationBefore + 1, generationKeyGenerator.currentGeneration());
+    }
+
+    @Test
+    void listener_OwnMessage_ShouldBeIgnored() {
+        publisher.onUserChanged(new UserChangedEvent(UserEventType.USER_DELETED, USER_ID));
+
+        verify(usersById, after(2_000).never()).evict(any());
+    }
+}
@@ -0,0 +1,143 @@
+package com.example.userservice.integration;
+
+import com.example.userservice.UserServiceApplication;
+import com.example.userservice.dto.UserEvent;
+import com.example.userservice.events.UserEventType;
+import com.example.userservice.mapper.UserMapper;
+import com.example.userservice.model.OutboxEvent;
+import com.example.userservice.repository.OutboxEventRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Два экземпляра relay одновременно: lockNextBatch второго не ждет блокировок первого,
+ * а пропускает его пользователей и берет остальных.
+ */
+@SpringBootTest(classes = {UserServiceApplication.class, UserMapper.class})
+@ActiveProfiles("test")
+@Testcontainers
+@TestPropertySource(properties = {
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.flyway.enabled=false"
+})
+class OutboxEventRepositoryIT {
+
+    private static final long FIRST_USER = 1L;
+    private static final long SECOND_USER = 2L;
+    private static final long TIMEOUT_SECONDS = 5;
+
+    @Container
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    @Autowired
+    private OutboxEventRepository outboxRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final ExecutorService executor = Executors.newFixedThreadPool(2);
+
+    @DynamicPropertySource
+    static void configureProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+        outboxRepository.deleteAll();
+    }
+
+    @Test
+    void lockNextBatch_SecondRelay_ShouldSkipUserHeldByFirstWithoutBlocking() throws Exception {
+        OutboxEvent first = save(FIRST_USER);
+        OutboxEvent second = save(SECOND_USER);
+        OutboxEvent third = save(FIRST_USER);
+
+        CountDownLatch firstLocked = new CountDownLatch(1);
+        CountDownLatch releaseFirst = new CountDownLatch(1);
+        // limit 1: первый relay берет одно событие, но закрепляет за собой всего первого пользователя
+        Future<List<Long>> firstRelay = executor.submit(() -> inTransaction(1, firstLocked, releaseFirst));
+        try {
+            assertTrue(firstLocked.await(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+
+            Future<List<Long>> secondRelay = executor.submit(() -> inTransaction(10, null, null));
+
+            assertEquals(List.of(second.getId()), secondRelay.get(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+        } finally {
+            releaseFirst.countDown();
+        }
+        assertEquals(List.of(first.getId()), firstRelay.get(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+        assertTrue(outboxRepository.existsById(third.getId()));
+    }
+
+    @Test
+    void lockNextBatch_AllUsersHeldByFirstRelay_ShouldReturnEmptyWithoutBlocking() throws Exception {
+        OutboxEvent first = save(FIRST_USER);
+        OutboxEvent second = save(SECOND_USER);
+
+        CountDownLatch firstLocked = new CountDownLatch(1);
+        CountDownLatch releaseFirst = new CountDownLatch(1);
+        Future<List<Long>> firstRelay = executor.submit(() -> inTransaction(10, firstLocked, releaseFirst));
+        try {
+            assertTrue(firstLocked.await(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+
+            Future<List<Long>> secondRelay = executor.submit(() -> inTransaction(10, null, null));
+
+            assertEquals(List.of(), secondRelay.get(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+        } finally {
+            releaseFirst.countDown();
+        }
+        assertEquals(List.of(first.getId(), second.getId()), firstRelay.get(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+    }
+
+    // Транзакция relay: блокирует пачку и, если задан release, держит блокировки до сигнала
+    private List<Long> inTransaction(int limit, CountDownLatch locked, CountDownLatch release) {
+        return new TransactionTemplate(transactionManager).execute(status -> {
+            List<Long> ids = outboxRepository.lockNextBatch(limit).stream().map(OutboxEvent::getId).toList();
+            if (locked != null) {
+                locked.countDown();
+                try {
+                    release.await(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            return ids;
+        });
+    }
+
+    private OutboxEvent save(long userId) {
+        UserEvent payload = new UserEvent(UserEventType.USER_UPDATED, userId, "user" + userId + "@test.com",
+                "User" + userId, Instant.now());
+        return outboxRepository.save(OutboxEvent.builder()
+                .topic("user-events")
+                .aggregateId(userId)
+                .eventType(UserEventType.USER_UPDATED.getEventType())
+                .payload(payload)
+                .build());
+    }
+}
@@ -0,0 +1,88 @@
+package com.example.userservice.integration;
+
+import com.example.userservice.UserServiceApplication;
+import com.example.userservice.dto.UserResponse;
+import com.example.userservice.mapper.UserMapper;
+import com.example.userservice.model.User;
+import com.example.userservice.reactive.ReactiveUserService;
+import com.example.userservice.repository.UserRepository;
+import com.zaxxer.hikari.HikariDataSource;
+import io.r2dbc.spi.ConnectionFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.context.TestPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import javax.sql.DataSource;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Режим app.reactive.enabled=true: пул R2DBC рядом с Hikari. Бин ConnectionFactory отключает
+ * DataSourceAutoConfiguration, поэтому проверяется, что JPA по-прежнему работает на Hikari.
+ */
+@SpringBootTest(classes = {UserServiceApplication.class, UserMapper.class})
+@ActiveProfiles("test")
+@Testcontainers
+@TestPropertySource(properties = {
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.flyway.enabled=false",
+        "app.reactive.enabled=true"
+})
+class ReactiveUserIT {
+
+    @Container
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private ConnectionFactory connectionFactory;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ReactiveUserService reactiveUserService;
+
+    @DynamicPropertySource
+    static void configureProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+        registry.add("spring.datasource.driver-class-name", postgres::getDriverClassName);
+        registry.add("app.reactive.url", () -> "r2dbc:postgresql://" + postgres.getHost() + ":"
+                + postgres.getMappedPort(PostgreSQLContainer.POSTGRESQL_PORT) + "/" + postgres.getDatabaseName());
+        registry.add("app.reactive.username", postgres::getUsername);
+        registry.add("app.reactive.password", postgres::getPassword);
+    }
+
+    @AfterEach
+    void tearDown() {
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void contextWithReactivePool_ShouldKeepHikariDataSource() {
+        assertInstanceOf(HikariDataSource.class, dataSource);
+        assertNotNull(connectionFactory);
+    }
+
+    @Test
+    void userWrittenThroughJpa_ShouldBeReadThroughR2dbc() {
+        User saved = userRepository.save(User.builder().name("John").email("john@test.com").age(30).build());
+
+        UserResponse response = reactiveUserService.getUserById(saved.getId()).block();
+
+        assertNotNull(response);
+        assertEquals("john@test.com", response.getEmail());
+    }
+}
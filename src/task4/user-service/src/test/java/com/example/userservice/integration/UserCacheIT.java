@@ -0,0 +1,87 @@
+package com.example.userservice.integration;
+
+import com.example.userservice.config.AppConfig;
+import com.example.userservice.config.GenerationKeyGenerator;
+import com.example.userservice.dto.UserResponse;
+import com.example.userservice.mapper.UserMapper;
+import com.example.userservice.model.User;
+import com.example.userservice.repository.OutboxEventRepository;
+import com.example.userservice.repository.UserRepository;
+import com.example.userservice.service.UserService;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import jakarta.validation.Validator;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.util.Optional;
+import java.util.concurrent.Executor;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Кэширование через прокси Spring: без @EnableCaching аннотации @Cacheable/@CachePut молча не работают,
+ * а модульные тесты с моками этого не заметят.
+ */
+@SpringBootTest(classes = {AppConfig.class, UserService.class, GenerationKeyGenerator.class,
+        UserCacheIT.ExecutorConfig.class})
+@ActiveProfiles("test")
+class UserCacheIT {
+
+    private static final Long ID = 1L;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @MockitoBean
+    private UserRepository userRepository;
+
+    @MockitoBean
+    private UserMapper userMapper;
+
+    @MockitoBean
+    private OutboxEventRepository outboxEventRepository;
+
+    @MockitoBean
+    private Validator validator;
+
+    @Test
+    void getUserById_SecondCall_ShouldBeServedFromUsersByIdCache() {
+        User user = User.builder().id(ID).name("John").email("john@test.com").age(30).build();
+        UserResponse response = UserResponse.builder().id(ID).name("John").email("john@test.com").age(30).build();
+        when(userRepository.findById(ID)).thenReturn(Optional.of(user));
+        when(userMapper.toResponse(user)).thenReturn(response);
+
+        assertEquals(response, userService.getUserById(ID));
+        assertEquals(response, userService.getUserById(ID));
+
+        verify(userRepository, times(1)).findById(ID);
+        assertEquals(response, cacheManager.getCache(AppConfig.USERS_BY_ID_CACHE).get(ID, UserResponse.class));
+    }
+
+    @TestConfiguration
+    static class ExecutorConfig {
+
+        // Загрузчик кэша выполняется в потоке вызова - тест детерминирован
+        @Bean(TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME)
+        Executor applicationTaskExecutor() {
+            return Runnable::run;
+        }
+
+        // Загрузчик usersById берет разрешение bulkhead "database"; автоконфигурации resilience4j в этом контексте нет
+        @Bean
+        BulkheadRegistry bulkheadRegistry() {
+            return BulkheadRegistry.ofDefaults();
+        }
+    }
+}
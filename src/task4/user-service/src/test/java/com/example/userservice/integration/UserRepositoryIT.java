@@ -8,6 +8,7 @@ import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
@@ -19,6 +20,7 @@ import org.testcontainers.containers.PostgreSQLContainer;
 import org.testcontainers.junit.jupiter.Container;
 import org.testcontainers.junit.jupiter.Testcontainers;
 
+import java.util.List;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -102,4 +104,28 @@ class UserRepositoryIT {
         assertTrue(result.getContent().stream().anyMatch(u -> u.getName().equals("Alice")));
         assertTrue(result.getContent().stream().anyMatch(u -> u.getName().equals("Bob")));
     }
+
+    @Test
+    void keysetPages_ShouldContinueAfterLastRowWithoutGaps() {
+        // Одинаковые имена: порядок внутри имени задает id
+        userRepository.save(User.builder().name("Alice").email("alice1@test.com").age(25).build());
+        userRepository.save(User.builder().name("Alice").email("alice2@test.com").age(35).build());
+        userRepository.save(User.builder().name("Bob").email("bob@test.com").age(45).build());
+
+        List<User> first = userRepository.findFirstByNameOrder(Limit.of(2));
+        User last = first.get(1);
+        List<User> second = userRepository.findAfterByNameOrder(last.getName(), last.getId(), Limit.of(2));
+
+        assertEquals(List.of("alice1@test.com", "alice2@test.com"), first.stream().map(User::getEmail).toList());
+        assertEquals(List.of("bob@test.com"), second.stream().map(User::getEmail).toList());
+
+        // По возрасту порядок (age, name, id): младший Bob идет раньше старшей Alice
+        userRepository.save(User.builder().name("Bob").email("bob2@test.com").age(31).build());
+        List<User> adults = userRepository.findFirstByAgeBetween(30, 50, Limit.of(2));
+        assertEquals(List.of("bob2@test.com", "alice2@test.com"), adults.stream().map(User::getEmail).toList());
+        User lastAdult = adults.get(1);
+        List<User> rest = userRepository.findAfterByAgeBetween(30, 50,
+                lastAdult.getAge(), lastAdult.getName(), lastAdult.getId(), Limit.of(10));
+        assertEquals(List.of("bob@test.com"), rest.stream().map(User::getEmail).toList());
+    }
 }
@@ -0,0 +1,149 @@
+package com.example.userservice.integration;
+
+import com.example.userservice.UserServiceApplication;
+import com.example.userservice.dto.UserResponse;
+import com.example.userservice.mapper.UserMapper;
+import com.example.userservice.model.User;
+import com.example.userservice.repository.UserRepository;
+import com.example.userservice.service.UserService;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.context.TestPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Поиск по подстроке и keyset-запросы на схеме из миграций Flyway (pg_trgm и GIN-индексы создаются только там).
+ */
+@SpringBootTest(classes = {UserServiceApplication.class, UserMapper.class})
+@ActiveProfiles("test")
+@Testcontainers
+@TestPropertySource(properties = {
+        "spring.jpa.hibernate.ddl-auto=validate",
+        "spring.flyway.enabled=true"
+})
+class UserSearchIT {
+
+    @Container
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private Flyway flyway;
+
+    @DynamicPropertySource
+    static void configureProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+        registry.add("spring.datasource.driver-class-name", postgres::getDriverClassName);
+    }
+
+    @AfterEach
+    void tearDown() {
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void migrations_ShouldApplyAllVersionsIncludingConcurrentIndexes() {
+        // Контекст поднялся - значит, Flyway не завис на CREATE INDEX CONCURRENTLY (V4, V6)
+        List<String> applied = Arrays.stream(flyway.info().applied())
+                .filter(info -> info.getState().isApplied() && !info.getState().isFailed())
+                .map(info -> info.getVersion().getVersion())
+                .toList();
+
+        assertTrue(applied.containsAll(List.of("1", "2", "3", "4", "5", "6")), applied.toString());
+        assertEquals(0, flyway.info().pending().length);
+        assertEquals(2, jdbcTemplate.queryForObject(
+                "SELECT count(*) FROM pg_index i JOIN pg_class c ON c.oid = i.indexrelid "
+                        + "WHERE c.relname IN ('idx_users_name_id', 'idx_users_name_trgm') AND i.indisvalid",
+                Integer.class));
+    }
+
+    @Test
+    void searchUsers_ShouldMatchSubstringRankedAndPaged() {
+        userRepository.saveAll(List.of(
+                User.builder().name("Johnathan").email("jl@test.com").age(30).build(),
+                User.builder().name("John").email("john@test.com").age(31).build(),
+                User.builder().name("Alice").email("alice.johnson@test.com").age(32).build(),
+                User.builder().name("Bob").email("bob@test.com").age(33).build()));
+
+        Slice<UserResponse> first = userService.searchUsers("JOHN", PageRequest.of(0, 2));
+        Slice<UserResponse> second = userService.searchUsers("JOHN", PageRequest.of(1, 2));
+
+        // Точное совпадение имени ранжируется выше
+        assertEquals("John", first.getContent().get(0).getName());
+        assertTrue(first.hasNext());
+        assertEquals(1, second.getNumberOfElements());
+        assertFalse(second.hasNext());
+    }
+
+    @Test
+    void searchUsers_ShouldEscapeLikeWildcards() {
+        userRepository.save(User.builder().name("Bob").email("bob@test.com").age(33).build());
+
+        assertTrue(userService.searchUsers("%%%", PageRequest.of(0, 10)).isEmpty());
+    }
+
+    @Test
+    void searchQuery_ShouldUseTrigramIndexes() {
+        // На пустой таблице планировщик и так выберет seq scan; проверяем, что индекс применим к предикату
+        String plan = explain("SELECT * FROM users WHERE lower(name) LIKE '%ohn%' OR lower(email) LIKE '%ohn%'");
+
+        assertTrue(plan.contains("idx_users_name_trgm"), plan);
+        assertTrue(plan.contains("idx_users_email_trgm"), plan);
+    }
+
+    @Test
+    void ageCursorQuery_ShouldReadIndexInOrderWithoutSort() {
+        String plan = explain("SELECT * FROM users WHERE age BETWEEN 20 AND 40 AND (age, name, id) > (25, 'Bob', 7) "
+                + "ORDER BY age, name, id LIMIT 21");
+
+        assertTrue(plan.contains("idx_users_age_name_id"), plan);
+        assertFalse(plan.contains("Sort"), plan);
+    }
+
+    private String explain(String sql) {
+        String plan = jdbcTemplate.execute((ConnectionCallback<String>) connection -> {
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("SET enable_seqscan = off");
+                StringBuilder lines = new StringBuilder();
+                try (ResultSet rs = statement.executeQuery("EXPLAIN " + sql)) {
+                    while (rs.next()) {
+                        lines.append(rs.getString(1)).append('\n');
+                    }
+                }
+                statement.execute("RESET enable_seqscan");
+                return lines.toString();
+            }
+        });
+        assertNotNull(plan);
+        return plan;
+    }
+}
@@ -0,0 +1,56 @@
+package com.example.userservice.reactive;
+
+import com.example.userservice.dto.UserResponse;
+import com.example.userservice.exception.UserNotFoundException;
+import com.example.userservice.mapper.UserMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ReactiveUserServiceTest {
+
+    @Mock
+    private ReactiveUserRepository userRepository;
+
+    @Mock
+    private UserMapper userMapper;
+
+    @InjectMocks
+    private ReactiveUserService userService;
+
+    @Test
+    void getUserById_Missing_ShouldFailWithNotFound() {
+        when(userRepository.findById(1L)).thenReturn(Mono.empty());
+
+        assertThrows(UserNotFoundException.class, () -> userService.getUserById(1L).block());
+    }
+
+    @Test
+    void findUsersByAgeRange_ShouldCombineRowsAndCount() {
+        Pageable pageable = PageRequest.of(1, 2);
+        UserRow row = new UserRow(3L, "John", "john@test.com", 30, null, null);
+        when(userRepository.findByAgeBetween(20, 40, pageable)).thenReturn(Flux.just(row));
+        when(userRepository.countByAgeBetween(20, 40)).thenReturn(Mono.just(3L));
+        when(userMapper.toResponse(any(UserRow.class))).thenAnswer(inv -> UserResponse.builder()
+                .id(((UserRow) inv.getArgument(0)).id()).build());
+
+        Page<UserResponse> page = userService.findUsersByAgeRange(20, 40, pageable).block();
+
+        assertNotNull(page);
+        assertEquals(3L, page.getContent().get(0).getId());
+        assertEquals(3, page.getTotalElements());
+        assertEquals(2, page.getTotalPages());
+    }
+}
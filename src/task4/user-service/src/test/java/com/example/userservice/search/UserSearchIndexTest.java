@@ -0,0 +1,146 @@
+package com.example.userservice.search;
+
+import com.example.userservice.dto.UserSuggestion;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UserSearchIndexTest {
+
+    private UserSearchIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new UserSearchIndex(16, 10_000, 0.5, 0.3);
+        index.upsert(1L, "John Smith", "john.smith@test.com");
+        index.upsert(2L, "Johnny Cash", "cash@test.com");
+        index.upsert(3L, "Alice", "alice.johnson@test.com");
+        index.upsert(4L, "Bob", "bob@test.com");
+    }
+
+    private static List<Long> ids(List<UserSuggestion> suggestions) {
+        return suggestions.stream().map(UserSuggestion::id).toList();
+    }
+
+    @Test
+    void suggest_ShouldRankNamePrefixBeforeEmailSubstring() {
+        List<UserSuggestion> result = index.suggest("JOHN", 10);
+
+        assertEquals(List.of(1L, 2L, 3L), ids(result));
+        assertEquals("John Smith", result.get(0).name());
+        assertEquals("john.smith@test.com", result.get(0).email());
+    }
+
+    @Test
+    void suggest_ShortQuery_ShouldMatchPrefixesOnly() {
+        assertEquals(List.of(4L), ids(index.suggest("b", 10)));
+        assertEquals(List.of(2L), ids(index.suggest("ca", 10)));
+    }
+
+    @Test
+    void suggest_ShouldMatchWordInsideName() {
+        assertEquals(List.of(1L), ids(index.suggest("smi", 10)));
+    }
+
+    @Test
+    void suggest_ShouldFallBackToFuzzyMatches() {
+        List<UserSuggestion> result = index.suggest("johnsom", 10);
+
+        assertEquals(3L, result.get(0).id());
+        assertTrue(result.get(0).score() < 1);
+    }
+
+    @Test
+    void suggest_ShouldRespectLimit() {
+        assertEquals(List.of(1L), ids(index.suggest("john", 1)));
+    }
+
+    @Test
+    void upsertAndRemove_ShouldReplaceIndexedText() {
+        index.upsert(4L, "Robert", "robert@test.com");
+        index.remove(1L);
+
+        assertTrue(index.suggest("bob", 10).isEmpty());
+        assertEquals(List.of(4L), ids(index.suggest("rob", 10)));
+        assertEquals(List.of(2L, 3L), ids(index.suggest("john", 10)));
+        assertEquals(3, index.stats().documents());
+    }
+
+    @Test
+    void putIfAbsent_ShouldNotOverwriteNewerData() {
+        assertFalse(index.putIfAbsent(4L, "Old Bob", "old@test.com"));
+        assertTrue(index.putIfAbsent(5L, "Eve", "eve@test.com"));
+
+        assertEquals(List.of(4L), ids(index.suggest("bob", 10)));
+        assertEquals(List.of(5L), ids(index.suggest("eve", 10)));
+    }
+
+    @Test
+    void compaction_ShouldKeepLiveDocuments() {
+        UserSearchIndex small = new UserSearchIndex(16, 10_000, 0.5, 0.3);
+        for (long id = 0; id < 2_000; id++) {
+            small.upsert(id, "User " + id, "user" + id + "@test.com");
+        }
+        for (long id = 0; id < 1_000; id++) {
+            small.remove(id);
+        }
+
+        UserSearchIndex.Stats stats = small.stats();
+        assertEquals(1_000, stats.documents());
+        assertTrue(stats.deletedDocuments() < 1_000);
+        assertEquals(1999L, small.suggest("user1999@", 10).get(0).id());
+        // Остаются только нечеткие совпадения с живыми документами
+        assertFalse(ids(small.suggest("user999@", 10)).contains(999L));
+    }
+
+    @Test
+    void compaction_ConcurrentWriters_ShouldKeepChangesMadeDuringRebuild() throws Exception {
+        UserSearchIndex shared = new UserSearchIndex(16, 10_000, 0.5, 0.3);
+        int writers = 4;
+        ExecutorService executor = Executors.newFixedThreadPool(writers);
+        List<Future<Map<Long, String>>> results = new ArrayList<>();
+        for (int writer = 0; writer < writers; writer++) {
+            long base = writer * 100_000L;
+            Random random = new Random(writer);
+            // Каждый поток пишет своих пользователей: итог проверяется по его собственной модели
+            results.add(executor.submit(() -> {
+                Map<Long, String> expected = new HashMap<>();
+                for (int i = 0; i < 20_000; i++) {
+                    long id = base + random.nextInt(2_000);
+                    if (random.nextInt(3) == 0) {
+                        shared.remove(id);
+                        expected.remove(id);
+                    } else {
+                        String name = "name" + random.nextInt(1_000_000);
+                        shared.upsert(id, name, name + "@test.com");
+                        expected.put(id, name);
+                    }
+                }
+                return expected;
+            }));
+        }
+        Map<Long, String> expected = new HashMap<>();
+        for (Future<Map<Long, String>> result : results) {
+            expected.putAll(result.get());
+        }
+        executor.shutdown();
+
+        Set<Long> indexed = Arrays.stream(shared.userIds()).boxed().collect(Collectors.toSet());
+        assertEquals(expected.keySet(), indexed);
+        expected.forEach((id, name) -> assertTrue(shared.suggest(name + "@test.com", 50).stream()
+                .anyMatch(s -> s.id().equals(id) && s.name().equals(name)), name));
+    }
+}
@@ -0,0 +1,75 @@
+package com.example.userservice.search;
+
+import com.example.userservice.config.SearchProperties;
+import com.example.userservice.events.UserChangedEvent;
+import com.example.userservice.events.UserEventType;
+import com.example.userservice.exception.SearchIndexNotReadyException;
+import com.example.userservice.repository.UserRepository;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class UserSearchServiceTest {
+
+    private static final IndexedUser JOHN = new IndexedUser(1L, "John", "john@test.com");
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private UserSearchService service;
+
+    @BeforeEach
+    void setUp() {
+        SearchProperties properties = new SearchProperties();
+        properties.setExpectedUsers(16);
+        properties.setBuildRetryDelay(Duration.ofMillis(1));
+        service = new UserSearchService(userRepository, transactionManager, properties,
+                BulkheadRegistry.ofDefaults());
+    }
+
+    @Test
+    void suggest_BeforeBuild_ShouldReportNotReady() {
+        assertThrows(SearchIndexNotReadyException.class, () -> service.suggest("jo", 10));
+    }
+
+    @Test
+    void build_WhenScanFails_ShouldRetryUntilLoaded() {
+        when(userRepository.streamAllForIndex())
+                .thenThrow(new DataAccessResourceFailureException("connection refused"))
+                .thenReturn(Stream.of(JOHN));
+
+        service.build();
+
+        assertTrue(service.isReady());
+        assertEquals(1L, service.suggest("jo", 10).get(0).id());
+        verify(userRepository, times(2)).streamAllForIndex();
+    }
+
+    @Test
+    void build_UserDeletedDuringScan_ShouldNotStayIndexed() {
+        // Скан прочитал пользователя до удаления, событие удаления пришло раньше, чем скан его добавил
+        when(userRepository.streamAllForIndex()).thenAnswer(inv -> {
+            service.onUserChanged(new UserChangedEvent(UserEventType.USER_DELETED, JOHN.id()));
+            return Stream.of(JOHN);
+        });
+
+        service.build();
+
+        assertTrue(service.suggest("jo", 10).isEmpty());
+    }
+}
@@ -0,0 +1,48 @@
+package com.example.userservice.service;
+
+import com.example.userservice.exception.InvalidCursorException;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CursorCodecTest {
+
+    @Test
+    void encodeDecode_ShouldRoundTrip() {
+        String cursor = CursorCodec.encode("Иван Петров", 123456789L);
+
+        CursorCodec.Position position = CursorCodec.decode(cursor);
+
+        assertEquals("Иван Петров", position.name());
+        assertEquals(123456789L, position.id());
+    }
+
+    @Test
+    void encodeDecodeAge_ShouldRoundTrip() {
+        CursorCodec.AgePosition position = CursorCodec.decodeAge(CursorCodec.encode(42, "Иван", 7L));
+
+        assertEquals(new CursorCodec.AgePosition(42, "Иван", 7L), position);
+    }
+
+    @Test
+    void decode_CursorOfAnotherList_ShouldThrowException() {
+        String nameCursor = CursorCodec.encode("Иван", 7L);
+        String ageCursor = CursorCodec.encode(42, "Иван", 7L);
+
+        assertThrows(InvalidCursorException.class, () -> CursorCodec.decodeAge(nameCursor));
+        assertThrows(InvalidCursorException.class, () -> CursorCodec.decode(ageCursor));
+    }
+
+    @Test
+    void encode_ShouldBeUrlSafe() {
+        String cursor = CursorCodec.encode("a/b+c?", Long.MAX_VALUE);
+
+        assertTrue(cursor.matches("[A-Za-z0-9_-]+"));
+    }
+
+    @Test
+    void decode_Garbage_ShouldThrowException() {
+        assertThrows(InvalidCursorException.class, () -> CursorCodec.decode("not a cursor"));
+        assertThrows(InvalidCursorException.class, () -> CursorCodec.decode("AQ"));
+    }
+}
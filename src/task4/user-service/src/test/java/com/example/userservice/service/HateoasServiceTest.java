@@ -0,0 +1,70 @@
+package com.example.userservice.service;
+
+import com.example.userservice.dto.UserResponse;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.hateoas.IanaLinkRelations;
+import org.springframework.hateoas.LinkRelation;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HateoasServiceTest {
+
+    private final HateoasService hateoasService = new HateoasService();
+
+    @BeforeEach
+    void setUp() {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/users");
+        request.setServerName("users.example.com");
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+    }
+
+    @AfterEach
+    void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    void addLinksToUser_ShouldExpandTemplates() {
+        UserResponse user = UserResponse.builder().id(42L).name("John").build();
+
+        UserResponse result = hateoasService.addLinksToUser(user);
+
+        assertEquals("http://users.example.com/api/v1/users/42", href(result, IanaLinkRelations.SELF));
+        assertEquals("http://users.example.com/api/v1/users", href(result, LinkRelation.of("all-users")));
+        assertEquals("http://users.example.com/api/v1/users/42", href(result, LinkRelation.of("update")));
+        assertEquals("http://users.example.com/api/v1/users/42", href(result, LinkRelation.of("delete")));
+        assertEquals("John", result.getName());
+    }
+
+    @Test
+    void addLinksToUser_ShouldNotMutateCachedResponse() {
+        UserResponse cached = UserResponse.builder().id(42L).build();
+
+        hateoasService.addLinksToUser(cached);
+        UserResponse second = hateoasService.addLinksToUser(cached);
+
+        assertFalse(cached.hasLinks());
+        assertEquals(4, second.getLinks().stream().count());
+    }
+
+    @Test
+    void addLinksToPage_Lean_ShouldOmitItemLinks() {
+        Page<UserResponse> page = new PageImpl<>(List.of(UserResponse.builder().id(1L).build()));
+
+        assertFalse(hateoasService.addLinksToPage(page, true).getContent().get(0).hasLinks());
+        assertTrue(hateoasService.addLinksToPage(page, false).getContent().get(0).hasLinks());
+    }
+
+    private static String href(UserResponse user, LinkRelation rel) {
+        return user.getRequiredLink(rel).getHref();
+    }
+}
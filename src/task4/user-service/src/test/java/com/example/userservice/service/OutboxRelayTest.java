@@ -0,0 +1,163 @@
+package com.example.userservice.service;
+
+import com.example.userservice.config.OutboxProperties;
+import com.example.userservice.dto.UserEvent;
+import com.example.userservice.events.UserEventType;
+import com.example.userservice.model.OutboxEvent;
+import com.example.userservice.repository.OutboxEventRepository;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.kafka.KafkaException;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class OutboxRelayTest {
+
+    private static final String TOPIC = "user-created";
+
+    @Mock
+    private OutboxEventRepository outboxRepository;
+
+    @Mock
+    private KafkaTemplate<String, UserEvent> kafkaTemplate;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    private final OutboxProperties properties = new OutboxProperties();
+
+    private OutboxRelay relay;
+
+    @BeforeEach
+    void setUp() {
+        properties.setBatchSize(2);
+        properties.setMaxInFlight(1);
+        relay = new OutboxRelay(outboxRepository, kafkaTemplate, transactionTemplate, properties,
+                BulkheadRegistry.ofDefaults());
+    }
+
+    private static OutboxEvent event(long id) {
+        return event(id, id);
+    }
+
+    private static OutboxEvent event(long id, long userId) {
+        return OutboxEvent.builder()
+                .id(id)
+                .topic(TOPIC)
+                .aggregateId(userId)
+                .eventType("user.created")
+                .payload(new UserEvent(UserEventType.USER_CREATED, id, "user" + id + "@test.com", "User", Instant.EPOCH))
+                .build();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static CompletableFuture<SendResult<String, UserEvent>> acked() {
+        return CompletableFuture.completedFuture(mock(SendResult.class));
+    }
+
+    @Test
+    void relayBatch_AllAcknowledged_ShouldDeleteRows() {
+        when(outboxRepository.lockNextBatch(2)).thenReturn(List.of(event(1), event(2)));
+        when(kafkaTemplate.send(eq(TOPIC), anyString(), any())).thenReturn(acked());
+
+        assertEquals(2, relay.relayBatch());
+
+        verify(outboxRepository).deleteAllByIdInBatch(List.of(1L, 2L));
+        verify(outboxRepository, never()).incrementAttempts(any());
+    }
+
+    @Test
+    void relayBatch_BrokerFailure_ShouldKeepFailedRows() {
+        when(outboxRepository.lockNextBatch(2)).thenReturn(List.of(event(1), event(2)));
+        when(kafkaTemplate.send(eq(TOPIC), eq("1"), any()))
+                .thenReturn(acked());
+        when(kafkaTemplate.send(eq(TOPIC), eq("2"), any()))
+                .thenReturn(CompletableFuture.failedFuture(new IllegalStateException("broker down")));
+
+        assertEquals(1, relay.relayBatch());
+
+        verify(outboxRepository).deleteAllByIdInBatch(List.of(1L));
+        verify(outboxRepository).incrementAttempts(List.of(2L));
+    }
+
+    @Test
+    void relayBatch_SendBlockedAndFailed_ShouldStopSendingRestOfBatch() {
+        properties.setBatchSize(3);
+        when(outboxRepository.lockNextBatch(3)).thenReturn(List.of(event(1), event(2), event(3)));
+        // KafkaTemplate бросает исключение, когда metadata не получена за max.block.ms
+        when(kafkaTemplate.send(eq(TOPIC), eq("1"), any())).thenThrow(new KafkaException("max.block.ms expired"));
+
+        assertEquals(0, relay.relayBatch());
+
+        verify(kafkaTemplate, times(1)).send(eq(TOPIC), anyString(), any());
+        verify(outboxRepository, never()).deleteAllByIdInBatch(any());
+        verify(outboxRepository).incrementAttempts(List.of(1L));
+    }
+
+    @Test
+    void relayBatch_FailedEvent_ShouldKeepLaterEventsOfSameUser() {
+        properties.setMaxInFlight(2);
+        when(outboxRepository.lockNextBatch(2)).thenReturn(List.of(event(1, 5), event(2, 5)));
+        CompletableFuture<SendResult<String, UserEvent>> first = new CompletableFuture<>();
+        when(kafkaTemplate.send(eq(TOPIC), eq("5"), any()))
+                .thenReturn(first)
+                .thenAnswer(inv -> {
+                    // Второе событие подтверждено, но первое к этому моменту уже не доставлено
+                    first.completeExceptionally(new IllegalStateException("delivery timeout"));
+                    return acked();
+                });
+
+        assertEquals(0, relay.relayBatch());
+
+        verify(outboxRepository, never()).deleteAllByIdInBatch(any());
+        verify(outboxRepository).incrementAttempts(List.of(1L));
+    }
+
+    @Test
+    void relay_ShouldDrainWhileBatchesAreFull() {
+        when(transactionTemplate.execute(any()))
+                .thenAnswer(inv -> inv.<TransactionCallback<Integer>>getArgument(0).doInTransaction(null));
+        when(outboxRepository.lockNextBatch(anyInt()))
+                .thenReturn(List.of(event(1), event(2)))
+                .thenReturn(List.of(event(3)));
+        when(kafkaTemplate.send(eq(TOPIC), anyString(), any())).thenReturn(acked());
+
+        relay.relay();
+
+        verify(outboxRepository, times(2)).lockNextBatch(2);
+        verify(kafkaTemplate, times(3)).send(eq(TOPIC), anyString(), any());
+    }
+
+    @Test
+    void relayBatch_ShouldUseUserIdAsKey() {
+        when(outboxRepository.lockNextBatch(2)).thenReturn(List.of(event(7)));
+        when(kafkaTemplate.send(eq(TOPIC), anyString(), any())).thenReturn(acked());
+
+        relay.relayBatch();
+
+        verify(kafkaTemplate).send(eq(TOPIC), eq("7"), any(UserEvent.class));
+    }
+
+    @Test
+    void relayBatch_EmptyOutbox_ShouldDoNothing() {
+        when(outboxRepository.lockNextBatch(2)).thenReturn(List.of());
+
+        assertEquals(0, relay.relayBatch());
+
+        verifyNoInteractions(kafkaTemplate);
+    }
+}
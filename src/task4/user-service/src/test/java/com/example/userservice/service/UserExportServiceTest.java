@@ -0,0 +1,139 @@
+package com.example.userservice.service;
+
+import com.example.userservice.dto.UserExportRow;
+import com.example.userservice.repository.UserRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import io.github.resilience4j.bulkhead.BulkheadConfig;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.web.context.request.async.WebAsyncManager;
+import org.springframework.web.context.request.async.WebAsyncUtils;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class UserExportServiceTest {
+
+    private static final LocalDateTime CREATED = LocalDateTime.of(2024, 1, 2, 3, 4, 5);
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private UserExportService exportService;
+
+    @BeforeEach
+    void setUp() {
+        ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules()
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        BulkheadRegistry bulkheads = BulkheadRegistry.of(BulkheadConfig.custom()
+                .maxConcurrentCalls(1)
+                .maxWaitDuration(Duration.ZERO)
+                .build());
+        exportService = new UserExportService(userRepository, objectMapper, transactionManager, bulkheads);
+    }
+
+    @Test
+    void open_WhileExportRunning_ShouldRejectBeforeResponseStarts() throws Exception {
+        when(userRepository.streamForExport(0, 100)).thenReturn(Stream.empty());
+
+        WebAsyncManager asyncManager = asyncManager();
+        StreamingResponseBody first = exportService.open(UserExportService.Format.NDJSON, 0, 100, asyncManager);
+
+        assertThrows(BulkheadFullException.class,
+                () -> exportService.open(UserExportService.Format.NDJSON, 0, 100, asyncManager()));
+        // Место освобождается, когда тело ответа дописано, и только один раз
+        first.writeTo(new ByteArrayOutputStream());
+        asyncManager.getCallableInterceptor(UserExportService.PERMIT_RELEASE_INTERCEPTOR).afterCompletion(null, null);
+        assertDoesNotThrow(() -> exportService.open(UserExportService.Format.NDJSON, 0, 100, asyncManager()));
+        assertThrows(BulkheadFullException.class,
+                () -> exportService.open(UserExportService.Format.NDJSON, 0, 100, asyncManager()));
+    }
+
+    @Test
+    void open_BodyNeverRuns_ShouldReleaseOnAsyncCompletion() throws Exception {
+        WebAsyncManager asyncManager = asyncManager();
+        StreamingResponseBody body = exportService.open(UserExportService.Format.NDJSON, 0, 100, asyncManager);
+
+        // Таймаут или ошибка асинхронной обработки до запуска тела
+        asyncManager.getCallableInterceptor(UserExportService.PERMIT_RELEASE_INTERCEPTOR).afterCompletion(null, null);
+        // Запоздавший запуск тела уже ничего не выгружает и место повторно не освобождает
+        body.writeTo(new ByteArrayOutputStream());
+
+        assertDoesNotThrow(() -> exportService.open(UserExportService.Format.NDJSON, 0, 100, asyncManager()));
+        assertThrows(BulkheadFullException.class,
+                () -> exportService.open(UserExportService.Format.NDJSON, 0, 100, asyncManager()));
+        verifyNoInteractions(userRepository);
+    }
+
+    @Test
+    void export_Ndjson_ShouldWriteOneObjectPerLine() {
+        when(userRepository.streamForExport(0, 100)).thenReturn(Stream.of(
+                new UserExportRow(1L, "John", "john@test.com", 30, CREATED, CREATED),
+                new UserExportRow(2L, "Jane", "jane@test.com", 25, CREATED, null)));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        long exported = exportService.export(UserExportService.Format.NDJSON, 0, 100, out);
+
+        assertEquals(2, exported);
+        assertEquals("""
+                {"id":1,"name":"John","email":"john@test.com","age":30,"createdAt":"2024-01-02T03:04:05","updatedAt":"2024-01-02T03:04:05"}
+                {"id":2,"name":"Jane","email":"jane@test.com","age":25,"createdAt":"2024-01-02T03:04:05","updatedAt":null}
+                """, out.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void export_Csv_ShouldQuoteSpecialCharacters() {
+        when(userRepository.streamForExport(18, 40)).thenReturn(Stream.of(
+                new UserExportRow(1L, "Doe, \"Johnny\"", "john@test.com", 30, CREATED, null)));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        exportService.export(UserExportService.Format.CSV, 18, 40, out);
+
+        assertEquals("""
+                id,name,email,age,created_at,updated_at
+                1,"Doe, ""Johnny""",john@test.com,30,2024-01-02T03:04:05,
+                """, out.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void export_Csv_ShouldNeutralizeFormulaCells() {
+        when(userRepository.streamForExport(0, 100)).thenReturn(Stream.of(
+                new UserExportRow(1L, "=HYPERLINK(\"http://evil\",\"x\")", "@john@test.com", 30, CREATED, null),
+                new UserExportRow(2L, "+1", "-2@test.com", 25, CREATED, null)));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        exportService.export(UserExportService.Format.CSV, 0, 100, out);
+
+        assertEquals("""
+                id,name,email,age,created_at,updated_at
+                1,"'=HYPERLINK(""http://evil"",""x"")",'@john@test.com,30,2024-01-02T03:04:05,
+                2,'+1,'-2@test.com,25,2024-01-02T03:04:05,
+                """, out.toString(StandardCharsets.UTF_8));
+    }
+
+    private static WebAsyncManager asyncManager() {
+        return WebAsyncUtils.getAsyncManager(new MockHttpServletRequest());
+    }
+}
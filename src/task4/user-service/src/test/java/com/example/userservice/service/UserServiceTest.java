@@ -1,18 +1,36 @@
 package com.example.userservice.service;
 
+import com.example.userservice.config.BatchProperties;
+import com.example.userservice.dto.BatchUserResult;
+import com.example.userservice.dto.UserBatchUpdateRequest;
 import com.example.userservice.dto.UserRequest;
 import com.example.userservice.dto.UserResponse;
+import com.example.userservice.events.UserChangedEvent;
+import com.example.userservice.events.UserEventType;
+import com.example.userservice.events.UsersChangedEvent;
+import com.example.userservice.exception.BatchSizeExceededException;
 import com.example.userservice.exception.UserAlreadyExistsException;
 import com.example.userservice.mapper.UserMapper;
+import com.example.userservice.model.OutboxEvent;
 import com.example.userservice.model.User;
+import com.example.userservice.repository.OutboxEventRepository;
 import com.example.userservice.repository.UserRepository;
+import jakarta.validation.Validator;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.ApplicationEventPublisher;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -32,6 +50,21 @@ class UserServiceTest {
     @Mock
     private UserMapper userMapper;
 
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private OutboxEventRepository outboxEventRepository;
+
+    @Mock
+    private CacheManager cacheManager;
+
+    @Mock
+    private Validator validator;
+
+    @Spy
+    private BatchProperties batchProperties = new BatchProperties();
+
     @InjectMocks
     private UserService userService;
 
@@ -74,6 +107,12 @@ class UserServiceTest {
         verify(userRepository).existsByEmail(EMAIL);
         verify(userMapper).toEntity(request);
         verify(userMapper).toResponse(user);
+        verify(eventPublisher).publishEvent(new UserChangedEvent(UserEventType.USER_CREATED, ID, NAME, EMAIL, AGE, null));
+
+        ArgumentCaptor<OutboxEvent> outbox = ArgumentCaptor.forClass(OutboxEvent.class);
+        verify(outboxEventRepository).save(outbox.capture());
+        assertEquals(ID, outbox.getValue().getAggregateId());
+        assertEquals(UserEventType.USER_CREATED.getEventType(), outbox.getValue().getEventType());
     }
 
     @Test
@@ -88,6 +127,7 @@ class UserServiceTest {
         assertThrows(UserAlreadyExistsException.class, () -> {
             userService.createUser(request);
         });
+        verifyNoInteractions(eventPublisher, outboxEventRepository);
     }
     @Test
     void updateUser_ShouldUpdateFields() {
@@ -96,9 +136,113 @@ class UserServiceTest {
         User updatedUser = User.builder().id(ID).name(NAME).email("new@email.com").age(25).build();
 
         when(userRepository.findById(ID)).thenReturn(Optional.of(user));
-        when(userRepository.save(any())).thenReturn(updatedUser);
+        when(userRepository.saveAndFlush(any())).thenReturn(updatedUser);
 
         userService.updateUser(ID, request);
         verify(userMapper).updateFromRequest(request, user);
+        verify(eventPublisher).publishEvent(new UserChangedEvent(UserEventType.USER_UPDATED, ID, NAME, "new@email.com", 25, AGE));
+    }
+
+    @Test
+    void createUsers_ShouldCheckEmailsOnceAndReportConflicts() {
+        List<UserRequest> requests = List.of(
+                new UserRequest("A", "a@test.com", 20),
+                new UserRequest("B", "b@test.com", 30),
+                new UserRequest("A2", "a@test.com", 40));
+        AtomicLong ids = new AtomicLong();
+
+        when(userRepository.findExistingEmails(any())).thenReturn(List.of("b@test.com"));
+        when(userMapper.toEntity(any())).thenAnswer(inv -> {
+            UserRequest r = inv.getArgument(0);
+            return User.builder().name(r.getName()).email(r.getEmail()).age(r.getAge()).build();
+        });
+        when(userRepository.saveAll(any())).thenAnswer(inv -> {
+            List<User> users = inv.getArgument(0);
+            users.forEach(u -> u.setId(ids.incrementAndGet()));
+            return users;
+        });
+        when(userMapper.toResponse(any(User.class))).thenAnswer(inv -> UserResponse.builder()
+                .id(((User) inv.getArgument(0)).getId()).build());
+        when(cacheManager.getCache(any())).thenReturn(mock(Cache.class));
+
+        List<BatchUserResult> results = userService.createUsers(requests);
+
+        assertEquals(BatchUserResult.Status.CREATED, results.get(0).getStatus());
+        assertEquals(ID, results.get(0).getUser().getId());
+        assertEquals(BatchUserResult.Status.CONFLICT, results.get(1).getStatus());
+        assertEquals(BatchUserResult.Status.CONFLICT, results.get(2).getStatus());
+        verify(userRepository, times(1)).findExistingEmails(any());
+        verify(userRepository, never()).existsByEmail(any());
+        verify(eventPublisher).publishEvent(new UsersChangedEvent(
+                List.of(new UserChangedEvent(UserEventType.USER_CREATED, ID, "A", "a@test.com", 20, null))));
+        verify(outboxEventRepository).saveAll(argThat((List<OutboxEvent> events) -> events.size() == 1));
+    }
+
+    @Test
+    void createUsers_ShouldPublishOneChangeEventPerBatch() {
+        List<UserRequest> requests = List.of(
+                new UserRequest("A", "a@test.com", 20),
+                new UserRequest("B", "b@test.com", 30));
+        AtomicLong ids = new AtomicLong();
+
+        when(userMapper.toEntity(any())).thenAnswer(inv -> {
+            UserRequest r = inv.getArgument(0);
+            return User.builder().name(r.getName()).email(r.getEmail()).age(r.getAge()).build();
+        });
+        when(userRepository.saveAll(any())).thenAnswer(inv -> {
+            List<User> users = inv.getArgument(0);
+            users.forEach(u -> u.setId(ids.incrementAndGet()));
+            return users;
+        });
+        when(cacheManager.getCache(any())).thenReturn(mock(Cache.class));
+
+        userService.createUsers(requests);
+
+        ArgumentCaptor<Object> events = ArgumentCaptor.forClass(Object.class);
+        verify(eventPublisher, times(1)).publishEvent(events.capture());
+        assertEquals(List.of(1L, 2L), ((UsersChangedEvent) events.getValue()).userIds());
+    }
+
+    @Test
+    void createUsers_NullElement_ShouldBeReportedAsInvalid() {
+        List<UserRequest> requests = new ArrayList<>();
+        requests.add(null);
+
+        List<BatchUserResult> results = userService.createUsers(requests);
+
+        assertEquals(BatchUserResult.Status.INVALID, results.get(0).getStatus());
+        verify(eventPublisher, never()).publishEvent(any(Object.class));
+    }
+
+    @Test
+    void createUsers_TooLarge_ShouldThrowException() {
+        batchProperties.setMaxSize(1);
+        List<UserRequest> requests = List.of(
+                new UserRequest("A", "a@test.com", 20),
+                new UserRequest("B", "b@test.com", 30));
+
+        assertThrows(BatchSizeExceededException.class, () -> userService.createUsers(requests));
+        verifyNoInteractions(userRepository, outboxEventRepository);
+    }
+
+    @Test
+    void updateUsers_ShouldReportMissingUsers() {
+        User user = User.builder().id(ID).name(NAME).email(EMAIL).age(AGE).build();
+        List<UserBatchUpdateRequest> requests = List.of(
+                new UserBatchUpdateRequest(ID, new UserRequest("Updated", EMAIL, 31)),
+                new UserBatchUpdateRequest(2L, new UserRequest("Missing", "missing@test.com", 31)));
+
+        when(userRepository.findAllById(any())).thenReturn(List.of(user));
+        when(userRepository.saveAllAndFlush(any())).thenAnswer(inv -> inv.getArgument(0));
+        when(cacheManager.getCache(any())).thenReturn(mock(Cache.class));
+
+        List<BatchUserResult> results = userService.updateUsers(requests);
+
+        assertEquals(BatchUserResult.Status.UPDATED, results.get(0).getStatus());
+        assertEquals(BatchUserResult.Status.NOT_FOUND, results.get(1).getStatus());
+        verify(userMapper).updateFromRequest(requests.get(0).getUser(), user);
+        verify(userRepository, never()).findExistingEmails(any());
+        verify(eventPublisher).publishEvent(new UsersChangedEvent(
+                List.of(new UserChangedEvent(UserEventType.USER_UPDATED, ID, NAME, EMAIL, AGE, AGE))));
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,58 @@
+package com.example.userservice.stats;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AgeHistogramTest {
+
+    @Test
+    void count_ShouldMatchBruteForce() {
+        long[] expected = new long[AgeHistogram.MAX_AGE + 1];
+        Random random = new Random(42);
+        for (int i = 0; i < expected.length; i++) {
+            expected[i] = random.nextInt(1_000);
+        }
+        AgeHistogram histogram = AgeHistogram.of(expected.clone());
+
+        for (int i = 0; i < 10_000; i++) {
+            int age = random.nextInt(expected.length);
+            int delta = random.nextInt(3) - 1;
+            expected[age] += delta;
+            histogram.add(age, delta);
+        }
+
+        for (int min = 0; min <= AgeHistogram.MAX_AGE; min++) {
+            for (int max = min; max <= AgeHistogram.MAX_AGE; max++) {
+                long sum = 0;
+                for (int age = min; age <= max; age++) {
+                    sum += expected[age];
+                }
+                assertEquals(sum, histogram.count(min, max), min + ".." + max);
+            }
+        }
+        assertArrayEquals(expected, histogram.counts());
+    }
+
+    @Test
+    void count_ShouldClampRange() {
+        AgeHistogram histogram = new AgeHistogram();
+        histogram.add(0, 2);
+        histogram.add(100, 3);
+
+        assertEquals(5, histogram.count(-10, 200));
+        assertEquals(5, histogram.total());
+        assertEquals(0, histogram.count(101, 200));
+        assertEquals(0, histogram.count(50, 10));
+    }
+
+    @Test
+    void add_OutOfRange_ShouldThrowException() {
+        AgeHistogram histogram = new AgeHistogram();
+
+        assertThrows(IllegalArgumentException.class, () -> histogram.add(101, 1));
+        assertThrows(IllegalArgumentException.class, () -> AgeHistogram.of(new long[10]));
+    }
+}
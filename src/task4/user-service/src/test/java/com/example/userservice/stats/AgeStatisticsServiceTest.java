@@ -0,0 +1,73 @@
+package com.example.userservice.stats;
+
+import com.example.userservice.events.UserChangedEvent;
+import com.example.userservice.events.UserEventType;
+import com.example.userservice.repository.UserRepository;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class AgeStatisticsServiceTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    private AgeStatisticsService ageStatisticsService;
+
+    @BeforeEach
+    void setUp() {
+        ageStatisticsService = new AgeStatisticsService(userRepository, BulkheadRegistry.ofDefaults());
+    }
+
+    @Test
+    void onUserChanged_ShouldMoveUserBetweenBuckets() {
+        when(userRepository.countByAge()).thenReturn(List.of(new AgeCount(20, 3L), new AgeCount(40, 2L)));
+        ageStatisticsService.reseed();
+
+        ageStatisticsService.onUserChanged(new UserChangedEvent(UserEventType.USER_CREATED, 1L, "A", "a@test.com", 25, null));
+        ageStatisticsService.onUserChanged(new UserChangedEvent(UserEventType.USER_UPDATED, 2L, "B", "b@test.com", 30, 20));
+        ageStatisticsService.onUserChanged(new UserChangedEvent(UserEventType.USER_DELETED, 3L, null, null, null, 40));
+
+        assertEquals(4, ageStatisticsService.countByAgeRange(20, 30).count());
+        assertEquals(2, ageStatisticsService.countByAgeRange(20, 20).count());
+        assertEquals(1, ageStatisticsService.countByAgeRange(31, 100).count());
+        assertEquals(5, ageStatisticsService.countByAgeRange(0, 100).total());
+    }
+
+    @Test
+    void reseed_ShouldReplaceDriftedCounts() {
+        when(userRepository.countByAge()).thenReturn(List.of(new AgeCount(20, 3L)));
+        ageStatisticsService.reseed();
+        // Изменение на другом экземпляре сюда не дошло
+        when(userRepository.countByAge()).thenReturn(List.of(new AgeCount(20, 3L), new AgeCount(50, 1L)));
+
+        ageStatisticsService.reseed();
+
+        assertEquals(4, ageStatisticsService.countByAgeRange(0, 100).count());
+        assertEquals(1, ageStatisticsService.ageDistribution()[50]);
+    }
+
+    @Test
+    void reseed_ShouldKeepChangesMadeWhileQueryRuns() {
+        when(userRepository.countByAge()).thenAnswer(inv -> {
+            // Коммит после снимка запроса: в его результат не попал
+            ageStatisticsService.onUserChanged(
+                    new UserChangedEvent(UserEventType.USER_CREATED, 1L, "A", "a@test.com", 25, null));
+            return List.of(new AgeCount(20, 3L));
+        });
+
+        ageStatisticsService.reseed();
+
+        assertEquals(4, ageStatisticsService.countByAgeRange(0, 100).count());
+        assertEquals(1, ageStatisticsService.ageDistribution()[25]);
+    }
+}